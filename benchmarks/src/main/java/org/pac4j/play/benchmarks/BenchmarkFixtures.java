@@ -0,0 +1,160 @@
+package org.pac4j.play.benchmarks;
+
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.JavaSerializationHelper;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.PlaySessionStore;
+import play.cache.SyncCacheApi;
+import play.mvc.Http;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Data shared by the benchmarks: a typical OIDC user profile and an in-memory cache.
+ *
+ * @since 10.0.1
+ */
+final class BenchmarkFixtures {
+
+    static final String CLIENT_NAME = "OidcClient";
+
+    private static final JavaSerializationHelper JAVA_SERIALIZATION_HELPER = new JavaSerializationHelper();
+
+    private BenchmarkFixtures() {}
+
+    static CommonProfile profile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId("248289761001");
+        profile.setClientName(CLIENT_NAME);
+        profile.addAttribute("email", "jane.doe@example.com");
+        profile.addAttribute("given_name", "Jane");
+        profile.addAttribute("family_name", "Doe");
+        profile.addAttribute("locale", "en-US");
+        profile.addAttribute("picture", "https://www.example.com/avatars/248289761001.png");
+        profile.addRole("ROLE_USER");
+        profile.addRole("ROLE_ADMIN");
+        profile.addPermission("reports:read");
+        return profile;
+    }
+
+    /**
+     * A profile built from the claims of an OIDC ID token.
+     */
+    static CommonProfile oidcProfile() {
+        final CommonProfile profile = profile();
+        profile.addAttribute("iss", "https://accounts.example.com");
+        profile.addAttribute("aud", Arrays.asList("play-pac4j-demo"));
+        profile.addAttribute("iat", new Date(1588000000000L));
+        profile.addAttribute("exp", new Date(1588003600000L));
+        profile.addAttribute("email_verified", Boolean.TRUE);
+        profile.addAttribute("nonce", "n-0S6_WzA2Mj");
+        profile.addAttribute("at_hash", "77QmUPtjPfzWtF2AnpK9RQ");
+        return profile;
+    }
+
+    /**
+     * A profile built from a SAML assertion: multi-valued attributes and authentication attributes.
+     */
+    static CommonProfile samlProfile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId("_8e8dc5f69a98cc4c1ff3427e5ce34606fd672f91e6");
+        profile.setClientName("SAML2Client");
+        profile.addAttribute("urn:oid:0.9.2342.19200300.100.1.1", Arrays.asList("jdoe"));
+        profile.addAttribute("urn:oid:0.9.2342.19200300.100.1.3", Arrays.asList("jane.doe@example.com"));
+        profile.addAttribute("urn:oid:2.5.4.42", Arrays.asList("Jane"));
+        profile.addAttribute("urn:oid:2.5.4.4", Arrays.asList("Doe"));
+        profile.addAttribute("urn:oid:1.3.6.1.4.1.5923.1.1.1.1", Arrays.asList("member", "staff", "employee"));
+        profile.addAttribute("urn:oid:1.3.6.1.4.1.5923.1.1.1.7",
+                Arrays.asList("urn:mace:example.com:reports", "urn:mace:example.com:admin"));
+        profile.addAuthenticationAttribute("sessionindex", "_be9967abd904ddcae3c0eb4189adbe3f71e327cf93");
+        profile.addAuthenticationAttribute("issuerId", "https://idp.example.com/idp/shibboleth");
+        profile.addAuthenticationAttribute("authnContext",
+                Arrays.asList("urn:oasis:names:tc:SAML:2.0:ac:classes:PasswordProtectedTransport"));
+        profile.addAuthenticationAttribute("notBefore", new Date(1588000000000L));
+        profile.addAuthenticationAttribute("notOnOrAfter", new Date(1588000300000L));
+        profile.addRole("ROLE_USER");
+        return profile;
+    }
+
+    static LinkedHashMap<String, CommonProfile> profiles() {
+        final LinkedHashMap<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(CLIENT_NAME, profile());
+        return profiles;
+    }
+
+    /**
+     * Stores the values through the given session store and returns the resulting Play session.
+     */
+    static Http.Session sessionWith(final PlaySessionStore sessionStore, final Map<String, Object> values) {
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().uri("/").build(), sessionStore);
+        values.forEach((key, value) -> sessionStore.set(context, key, value));
+        return context.getNativeSession();
+    }
+
+    /**
+     * A cache without expiration, the timeouts are ignored. It can serialize the values like a remote cache.
+     */
+    static final class InMemorySyncCacheApi implements SyncCacheApi {
+
+        private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+        private final boolean serializing;
+
+        InMemorySyncCacheApi() {
+            this(false);
+        }
+
+        InMemorySyncCacheApi(final boolean serializing) {
+            this.serializing = serializing;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Optional<T> get(final String key) {
+            final Object value = cache.get(key);
+            if (serializing && value != null) {
+                return Optional.of((T) JAVA_SERIALIZATION_HELPER.deserializeFromBytes((byte[]) value));
+            }
+            return Optional.ofNullable((T) value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getOrElseUpdate(final String key, final Callable<T> block, final int expiration) {
+            return (T) cache.computeIfAbsent(key, k -> {
+                try {
+                    return block.call();
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        @Override
+        public <T> T getOrElseUpdate(final String key, final Callable<T> block) {
+            return getOrElseUpdate(key, block, 0);
+        }
+
+        @Override
+        public void set(final String key, final Object value, final int expiration) {
+            set(key, value);
+        }
+
+        @Override
+        public void set(final String key, final Object value) {
+            cache.put(key, serializing ? JAVA_SERIALIZATION_HELPER.serializeToBytes((Serializable) value) : value);
+        }
+
+        @Override
+        public void remove(final String key) {
+            cache.remove(key);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.pac4j.play.benchmarks;
+
+import be.objectify.deadbolt.java.models.Subject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.play.deadbolt2.Pac4jHandler;
+import org.pac4j.play.store.PlayCacheSessionStore;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import org.pac4j.play.store.ShiroAesDataEncrypter;
+import play.libs.concurrent.HttpExecutionContext;
+import play.mvc.Http;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the retrieval of the Deadbolt subject from the pac4j profile saved in the session, which is performed for
+ * each Deadbolt constraint.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Pac4jHandlerBenchmark {
+
+    @Param({ "cookie", "cache" })
+    private String sessionStoreType;
+
+    private Pac4jHandler handler;
+
+    private Http.Request request;
+
+    @Setup
+    public void setUp() {
+        final PlaySessionStore sessionStore = "cache".equals(sessionStoreType)
+                ? new PlayCacheSessionStore(new BenchmarkFixtures.InMemorySyncCacheApi())
+                : new PlayCookieSessionStore(new ShiroAesDataEncrypter());
+        // the subject is built on the calling thread so that only the handler is measured
+        handler = new Pac4jHandler(new Config(), new HttpExecutionContext(Runnable::run), BenchmarkFixtures.CLIENT_NAME,
+                sessionStore, null);
+        final Http.Session session = BenchmarkFixtures.sessionWith(sessionStore,
+                Collections.singletonMap(Pac4jConstants.USER_PROFILES, BenchmarkFixtures.profiles()));
+        request = new Http.RequestBuilder().uri("/").session(session.data()).build();
+    }
+
+    @Benchmark
+    public Optional<? extends Subject> getSubject() {
+        return handler.getSubject(request).toCompletableFuture().join();
+    }
+}
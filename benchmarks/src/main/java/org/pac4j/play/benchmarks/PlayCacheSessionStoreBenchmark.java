@@ -0,0 +1,151 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.PlayCachePerKeySessionStore;
+import org.pac4j.play.store.PlayCacheSessionStore;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Results;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the read and the write of the session values in the Play cache, with an in-memory cache which keeps the
+ * values as is or serializes them like a remote cache.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayCacheSessionStoreBenchmark {
+
+    private static final String STATE = "oidcStateAttempt";
+
+    private static final String NONCE = "oidcNonceAttempt";
+
+    @Param({ "false", "true" })
+    private boolean serializing;
+
+    private BenchmarkFixtures.InMemorySyncCacheApi cache;
+
+    private Map<String, Object> values;
+
+    private String sessionKey;
+
+    private PlayCacheSessionStore sessionStore;
+
+    private PlayCacheSessionStore bufferedSessionStore;
+
+    private PlayCachePerKeySessionStore perKeySessionStore;
+
+    private Http.Request request;
+
+    private Http.Request perKeyRequest;
+
+    private LinkedHashMap<String, CommonProfile> profiles;
+
+    private Result redirection;
+
+    @Setup
+    public void setUp() {
+        cache = new BenchmarkFixtures.InMemorySyncCacheApi(serializing);
+        sessionStore = new PlayCacheSessionStore(cache);
+        bufferedSessionStore = new PlayCacheSessionStore(cache);
+        bufferedSessionStore.setBufferedWrites(true);
+        profiles = BenchmarkFixtures.profiles();
+        redirection = Results.redirect("/protected/page?id=42");
+        values = new LinkedHashMap<>();
+        values.put(Pac4jConstants.REQUESTED_URL, "https://www.example.com/protected/page?id=42");
+        values.put(STATE, "af0ifjsldkj");
+        values.put(NONCE, "n-0S6_WzA2Mj");
+        values.put(Pac4jConstants.USER_PROFILES, profiles);
+        final Http.Session session = BenchmarkFixtures.sessionWith(sessionStore, values);
+        request = new Http.RequestBuilder().uri("/").session(session.data()).build();
+        sessionKey = session.data().get(Pac4jConstants.SESSION_ID);
+        perKeySessionStore = new PlayCachePerKeySessionStore(cache);
+        perKeyRequest = new Http.RequestBuilder().uri("/")
+                .session(BenchmarkFixtures.sessionWith(perKeySessionStore, values).data()).build();
+    }
+
+    @Benchmark
+    public Optional<Object> get() {
+        return sessionStore.get(new PlayWebContext(request, sessionStore), Pac4jConstants.USER_PROFILES);
+    }
+
+    /**
+     * Reads a small value of a session which also holds the profiles.
+     */
+    @Benchmark
+    public Optional<Object> getRequestedUrl() {
+        return sessionStore.get(new PlayWebContext(request, sessionStore), Pac4jConstants.REQUESTED_URL);
+    }
+
+    @Benchmark
+    public Optional<Object> getRequestedUrlPerKey() {
+        return perKeySessionStore.get(new PlayWebContext(perKeyRequest, perKeySessionStore), Pac4jConstants.REQUESTED_URL);
+    }
+
+    @Benchmark
+    public void set() {
+        sessionStore.set(new PlayWebContext(request, sessionStore), Pac4jConstants.USER_PROFILES, profiles);
+    }
+
+    /**
+     * The session accesses of an OIDC callback: the state and the nonce are read and removed, the profiles are saved and
+     * the requested URL is read.
+     */
+    @Benchmark
+    public Result callback(final CallbackSession session, final Blackhole blackhole) {
+        return callback(sessionStore, blackhole);
+    }
+
+    @Benchmark
+    public Result callbackBuffered(final CallbackSession session, final Blackhole blackhole) {
+        return callback(bufferedSessionStore, blackhole);
+    }
+
+    private Result callback(final PlayCacheSessionStore store, final Blackhole blackhole) {
+        final PlayWebContext context = new PlayWebContext(request, store);
+        blackhole.consume(store.get(context, STATE));
+        blackhole.consume(store.get(context, NONCE));
+        store.set(context, STATE, null);
+        store.set(context, NONCE, null);
+        store.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        blackhole.consume(store.get(context, Pac4jConstants.REQUESTED_URL));
+        return context.supplementResponse(redirection);
+    }
+
+    /**
+     * Each callback starts from the same session values.
+     */
+    @State(Scope.Thread)
+    public static class CallbackSession {
+
+        @Setup(Level.Invocation)
+        public void reset(final PlayCacheSessionStoreBenchmark benchmark) {
+            benchmark.cache.set(benchmark.sessionKey, new LinkedHashMap<>(benchmark.values));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.AesGcmDataEncrypter;
+import org.pac4j.play.store.DataEncrypter;
+import org.pac4j.play.store.HmacDataEncrypter;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.ShiroAesDataEncrypter;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Results;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the read and the write of the user profiles in the Play session cookie: serialization, compression and
+ * encryption, and the reassembly of the profiles split across chunk cookies. The requested URL is a typical small value:
+ * with the <code>hmac</code> encrypter, all the keys are only signed.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayCookieSessionStoreBenchmark {
+
+    private static final String REQUESTED_URL = "https://app.example.com/protected/resource?id=42";
+
+    private static final String SIGNING_SECRET = "benchmark-signing-secret";
+
+    @Param({ "noop", "shiro", "gcm", "hmac" })
+    private String encrypter;
+
+    private PlayCookieSessionStore sessionStore;
+
+    private Http.Request emptyRequest;
+
+    private Http.Request requestWithProfiles;
+
+    private LinkedHashMap<String, CommonProfile> profiles;
+
+    private Http.Request requestWithLargeProfiles;
+
+    private Http.Request requestWithChunkedProfiles;
+
+    private Http.Request requestWithRequestedUrl;
+
+    @Setup
+    public void setUp() {
+        final DataEncrypter dataEncrypter;
+        if ("shiro".equals(encrypter)) {
+            dataEncrypter = new ShiroAesDataEncrypter();
+        } else if ("gcm".equals(encrypter) || "hmac".equals(encrypter)) {
+            dataEncrypter = new AesGcmDataEncrypter();
+        } else {
+            dataEncrypter = new NoOpDataEncrypter();
+        }
+        sessionStore = newStore(dataEncrypter);
+        // the large profiles stay inline in the Play session
+        sessionStore.setChunkSize(100_000);
+        sessionStore.setMaxSessionCookieSize(100_000);
+        profiles = BenchmarkFixtures.profiles();
+        emptyRequest = new Http.RequestBuilder().uri("/").build();
+        final Http.Session session = BenchmarkFixtures.sessionWith(sessionStore,
+                Collections.singletonMap(Pac4jConstants.USER_PROFILES, BenchmarkFixtures.profiles()));
+        requestWithProfiles = new Http.RequestBuilder().uri("/").session(session.data()).build();
+        // the same large profiles, in the Play session or split across 3 chunk cookies
+        requestWithLargeProfiles = requestWith(sessionStore, largeProfiles());
+        final PlayCookieSessionStore chunkingStore = newStore(dataEncrypter);
+        chunkingStore.setChunkSize(requestWithLargeProfiles.session().getOptional("pac4j_" + Pac4jConstants.USER_PROFILES)
+                .get().length() / 3 + 1);
+        chunkingStore.setMaxChunks(3);
+        requestWithChunkedProfiles = requestWith(chunkingStore, largeProfiles());
+        final Http.Session sessionWithUrl = BenchmarkFixtures.sessionWith(sessionStore,
+                Collections.singletonMap(Pac4jConstants.REQUESTED_URL, REQUESTED_URL));
+        requestWithRequestedUrl = new Http.RequestBuilder().uri("/").session(sessionWithUrl.data()).build();
+    }
+
+    private PlayCookieSessionStore newStore(final DataEncrypter dataEncrypter) {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(dataEncrypter);
+        if ("hmac".equals(encrypter)) {
+            store.setSigningEncrypter(HmacDataEncrypter.fromSecret(SIGNING_SECRET));
+            store.setSignedKeys(new HashSet<>(Arrays.asList(Pac4jConstants.USER_PROFILES, Pac4jConstants.REQUESTED_URL)));
+        }
+        return store;
+    }
+
+    private static LinkedHashMap<String, CommonProfile> largeProfiles() {
+        final LinkedHashMap<String, CommonProfile> profiles = BenchmarkFixtures.profiles();
+        final CommonProfile profile = profiles.get(BenchmarkFixtures.CLIENT_NAME);
+        for (int i = 0; i < 60; i++) {
+            profile.addAttribute("group_" + i, "urn:example:groups:" + Integer.toHexString(i * 0x9E3779B1));
+        }
+        return profiles;
+    }
+
+    private static Http.Request requestWith(final PlayCookieSessionStore store, final LinkedHashMap<String, CommonProfile> profiles) {
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().uri("/").build(), store);
+        store.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final Result result = context.supplementResponse(Results.ok());
+        final Http.RequestBuilder builder = new Http.RequestBuilder().uri("/").session(result.session().data());
+        result.cookies().forEach(builder::cookie);
+        return builder.build();
+    }
+
+    @Benchmark
+    public Optional<Object> getProfiles() {
+        return sessionStore.get(new PlayWebContext(requestWithProfiles, sessionStore), Pac4jConstants.USER_PROFILES);
+    }
+
+    @Benchmark
+    public Optional<Object> getLargeProfiles() {
+        return sessionStore.get(new PlayWebContext(requestWithLargeProfiles, sessionStore), Pac4jConstants.USER_PROFILES);
+    }
+
+    @Benchmark
+    public Optional<Object> getChunkedProfiles() {
+        return sessionStore.get(new PlayWebContext(requestWithChunkedProfiles, sessionStore), Pac4jConstants.USER_PROFILES);
+    }
+
+    @Benchmark
+    public Http.Session setProfiles() {
+        final PlayWebContext context = new PlayWebContext(emptyRequest, sessionStore);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        return context.getNativeSession();
+    }
+
+    @Benchmark
+    public Optional<Object> getRequestedUrl() {
+        return sessionStore.get(new PlayWebContext(requestWithRequestedUrl, sessionStore), Pac4jConstants.REQUESTED_URL);
+    }
+
+    @Benchmark
+    public Http.Session setRequestedUrl() {
+        final PlayWebContext context = new PlayWebContext(emptyRequest, sessionStore);
+        sessionStore.set(context, Pac4jConstants.REQUESTED_URL, REQUESTED_URL);
+        return context.getNativeSession();
+    }
+}
@@ -0,0 +1,65 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import play.mvc.Http;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the construction of a {@link PlayWebContext} and the access to the request parameters, as performed on a
+ * callback: the client name is read from the query string, the code and state from the form body.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayWebContextBenchmark {
+
+    private Http.Request request;
+
+    private PlaySessionStore sessionStore;
+
+    @Setup
+    public void setUp() {
+        request = new Http.RequestBuilder()
+                .method("POST")
+                .host("www.example.com")
+                .uri("/callback?client_name=" + BenchmarkFixtures.CLIENT_NAME)
+                .bodyFormArrayValues(Collections.singletonMap("code", new String[] { "SplxlOBeZQQYbYS6WxSbIA" }))
+                .build();
+        sessionStore = new PlayCookieSessionStore(new NoOpDataEncrypter());
+    }
+
+    @Benchmark
+    public PlayWebContext construction() {
+        return new PlayWebContext(request, sessionStore);
+    }
+
+    @Benchmark
+    public void parameters(final Blackhole blackhole) {
+        final PlayWebContext context = new PlayWebContext(request, sessionStore);
+        blackhole.consume(context.getRequestParameter("client_name"));
+        blackhole.consume(context.getRequestParameter("code"));
+        blackhole.consume(context.getRequestParameter("state"));
+        blackhole.consume(context.getRequestParameters());
+    }
+}
@@ -0,0 +1,108 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import play.mvc.Http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the access to the request cookies, which is performed several times per request by the pac4j clients and
+ * the CSRF matcher. Run with <code>-prof gc</code> to compare the allocation rates.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayWebContextCookiesBenchmark {
+
+    // number of cookie accesses per request
+    private static final int CALLS = 4;
+
+    @Param({ "5", "40" })
+    private int cookieCount;
+
+    private Http.Request request;
+
+    private PlaySessionStore sessionStore;
+
+    private String lastCookieName;
+
+    @Setup
+    public void setUp() {
+        final Http.RequestBuilder builder = new Http.RequestBuilder().uri("/");
+        for (int i = 0; i < cookieCount; i++) {
+            builder.cookie(Http.Cookie.builder("cookie" + i, "value" + i).build());
+        }
+        request = builder.build();
+        sessionStore = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        lastCookieName = "cookie" + (cookieCount - 1);
+    }
+
+    /**
+     * Previous behaviour: all the cookies are converted on each access.
+     */
+    @Benchmark
+    public void copyPerCall(final Blackhole blackhole) {
+        blackhole.consume(new PlayWebContext(request, sessionStore));
+        for (int i = 0; i < CALLS; i++) {
+            blackhole.consume(copyCookies(request));
+        }
+    }
+
+    @Benchmark
+    public void cachedCookies(final Blackhole blackhole) {
+        final PlayWebContext context = new PlayWebContext(request, sessionStore);
+        for (int i = 0; i < CALLS; i++) {
+            blackhole.consume(context.getRequestCookies());
+        }
+    }
+
+    @Benchmark
+    public void cookieByName(final Blackhole blackhole) {
+        final PlayWebContext context = new PlayWebContext(request, sessionStore);
+        for (int i = 0; i < CALLS; i++) {
+            blackhole.consume(context.getRequestCookie(lastCookieName));
+        }
+    }
+
+    private static Collection<Cookie> copyCookies(final Http.Request request) {
+        final List<Cookie> cookies = new ArrayList<>();
+        request.cookies().forEach(httpCookie -> {
+            final Cookie cookie = new Cookie(httpCookie.name(), httpCookie.value());
+            if (httpCookie.domain() != null) {
+                cookie.setDomain(httpCookie.domain());
+            }
+            cookie.setHttpOnly(httpCookie.httpOnly());
+            if (httpCookie.maxAge() != null) {
+                cookie.setMaxAge(httpCookie.maxAge());
+            }
+            cookie.setPath(httpCookie.path());
+            cookie.setSecure(httpCookie.secure());
+            cookies.add(cookie);
+        });
+        return cookies;
+    }
+}
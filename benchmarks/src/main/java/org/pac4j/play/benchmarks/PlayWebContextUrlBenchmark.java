@@ -0,0 +1,100 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pac4j.core.http.url.DefaultUrlResolver;
+import org.pac4j.core.http.url.UrlResolver;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import play.mvc.Http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the URL building performed by an indirect client when redirecting to the identity provider: the requested
+ * URL is saved and the callback URL is resolved against the server name, port and scheme.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayWebContextUrlBenchmark {
+
+    private static final String CALLBACK_URL = "/callback?client_name=OidcClient";
+
+    // the callback URL is resolved for the redirection URL and for the state/nonce checks
+    private static final int CALLBACK_RESOLUTIONS = 2;
+
+    private final UrlResolver urlResolver = new DefaultUrlResolver(true);
+
+    private Http.Request request;
+
+    private PlaySessionStore sessionStore;
+
+    @Setup
+    public void setUp() {
+        request = new Http.RequestBuilder()
+                .host("www.example.com:9443")
+                .secure(true)
+                .uri("/protected/page?id=42")
+                .build();
+        sessionStore = new PlayCookieSessionStore(new NoOpDataEncrypter());
+    }
+
+    @Benchmark
+    public void indirectClientUrls(final Blackhole blackhole) {
+        final PlayWebContext context = new PlayWebContext(request, sessionStore);
+        blackhole.consume(context.getFullRequestURL());
+        for (int i = 0; i < CALLBACK_RESOLUTIONS; i++) {
+            blackhole.consume(urlResolver.compute(CALLBACK_URL, context));
+        }
+    }
+
+    /**
+     * Previous behaviour: the host is split for each server name and port access.
+     */
+    @Benchmark
+    public void indirectClientUrlsSplittingHost(final Blackhole blackhole) {
+        final PlayWebContext context = new PlayWebContext(request, sessionStore) {
+            @Override
+            public String getServerName() {
+                return javaRequest.host().split(":")[0];
+            }
+
+            @Override
+            public int getServerPort() {
+                final String[] split = javaRequest.host().split(":");
+                return Integer.parseInt(split.length > 1 ? split[1] : javaRequest.secure() ? "443" : "80");
+            }
+
+            @Override
+            public String getScheme() {
+                return javaRequest.secure() ? "https" : "http";
+            }
+
+            @Override
+            public String getFullRequestURL() {
+                return getScheme() + "://" + javaRequest.host() + javaRequest.uri();
+            }
+        };
+        blackhole.consume(context.getFullRequestURL());
+        for (int i = 0; i < CALLBACK_RESOLUTIONS; i++) {
+            blackhole.consume(urlResolver.compute(CALLBACK_URL, context));
+        }
+    }
+}
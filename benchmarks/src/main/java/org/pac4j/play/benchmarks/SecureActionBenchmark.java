@@ -0,0 +1,132 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.client.DirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.extractor.HeaderExtractor;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.java.Secure;
+import org.pac4j.play.java.SecureAction;
+import org.pac4j.play.java.SecureParameters;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import play.libs.concurrent.HttpExecutionContext;
+import play.mvc.Action;
+import play.mvc.Http;
+import play.mvc.Result;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the security logic of the {@link SecureAction} for a REST call authenticated by a bearer token: the
+ * credentials are extracted, validated and the profile saved in the request. The parameters of the {@link Secure}
+ * annotation are read once per annotation instance (<code>cachedParameters</code>) instead of by reflection for each
+ * request (<code>readParameters</code>).
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecureActionBenchmark {
+
+    private static final String CLIENT_NAME = "BearerTokenClient";
+
+    private SecureAction secureAction;
+
+    private PlaySessionStore sessionStore;
+
+    private Http.Request request;
+
+    private Config config;
+
+    private Secure secure;
+
+    private Method securedMethod;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        sessionStore = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        config = new Config(new BearerTokenClient());
+        secureAction = new SecureAction(config, sessionStore, new HttpExecutionContext(Runnable::run));
+        securedMethod = SecureActionBenchmark.class.getMethod("securedMethod");
+        secure = securedMethod.getAnnotation(Secure.class);
+        request = new Http.RequestBuilder()
+                .uri("/api/reports")
+                .header(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX + "2YotnFZFEjr1zCsicMWpAA")
+                .build();
+    }
+
+    @Benchmark
+    public Result directClient() throws Throwable {
+        return secureAction.call(new PlayWebContext(request, sessionStore), CLIENT_NAME, null, null, false)
+                .toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public Result annotatedAction() {
+        // like Play, a new action for each request
+        return new AnnotatedSecureAction(config, sessionStore, secure, securedMethod).call(request).toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public SecureParameters readParameters() throws Throwable {
+        return new AnnotatedSecureAction(config, sessionStore, secure, securedMethod).uncachedParameters();
+    }
+
+    @Benchmark
+    public SecureParameters cachedParameters() throws Throwable {
+        return new AnnotatedSecureAction(config, sessionStore, secure, securedMethod).cachedParameters();
+    }
+
+    @Secure(clients = CLIENT_NAME)
+    public void securedMethod() {}
+
+    private static final class AnnotatedSecureAction extends SecureAction {
+
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        private AnnotatedSecureAction(final Config config, final PlaySessionStore sessionStore, final Secure secure,
+                                      final Method securedMethod) {
+            super(config, sessionStore);
+            ((Action) this).configuration = secure;
+            annotatedElement = securedMethod;
+        }
+
+        private SecureParameters uncachedParameters() throws Throwable {
+            return readParameters();
+        }
+
+        private SecureParameters cachedParameters() throws Throwable {
+            return getParameters();
+        }
+    }
+
+    private static final class BearerTokenClient extends DirectClient<TokenCredentials> {
+
+        private BearerTokenClient() {
+            setName(CLIENT_NAME);
+        }
+
+        @Override
+        protected void clientInit() {
+            defaultCredentialsExtractor(new HeaderExtractor(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX));
+            defaultAuthenticator((credentials, context) -> credentials.setUserProfile(BenchmarkFixtures.profile()));
+        }
+    }
+}
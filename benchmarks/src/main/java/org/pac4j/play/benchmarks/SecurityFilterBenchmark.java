@@ -0,0 +1,82 @@
+package org.pac4j.play.benchmarks;
+
+import com.typesafe.config.ConfigFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pac4j.core.config.Config;
+import org.pac4j.play.filters.SecurityFilter;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import play.api.Configuration;
+import play.api.mvc.RequestHeader;
+import play.mvc.Http;
+import scala.concurrent.ExecutionContext$;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lookup of the rule applying to a request in the {@link SecurityFilter}, which is performed for every
+ * request (including the assets), with and without the decision cache.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    private static final int RULE_COUNT = 30;
+
+    @Param({ "0", "1000" })
+    private int cacheSize;
+
+    private SecurityFilter securityFilter;
+
+    private RequestHeader moduleRequest;
+
+    private RequestHeader apiRequest;
+
+    private RequestHeader assetRequest;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder rules = new StringBuilder("pac4j.security.cache.maxSize = " + cacheSize + "\n");
+        rules.append("pac4j.security.rules = [\n");
+        rules.append("{ \"/assets/.*\" = { authorizers = \"_anonymous_\" } }\n");
+        for (int i = 0; i < RULE_COUNT; i++) {
+            rules.append("{ \"/module").append(i).append("/.*\" = { clients = \"OidcClient\", authorizers = \"_authenticated_\" } }\n");
+        }
+        rules.append("{ \"/api/v[0-9]+/.*\" = { clients = \"HeaderClient\" } }\n");
+        rules.append("]\n");
+        final Configuration configuration = new Configuration(ConfigFactory.parseString(rules.toString()));
+        securityFilter = new SecurityFilter(configuration, new PlayCookieSessionStore(new NoOpDataEncrypter()), new Config(),
+                ExecutionContext$.MODULE$.global(), null);
+        moduleRequest = request("/module0/dashboard?tab=overview");
+        apiRequest = request("/api/v2/reports/2019");
+        assetRequest = request("/assets/javascripts/main.js");
+    }
+
+    @Benchmark
+    public void findRule(final Blackhole blackhole) {
+        blackhole.consume(securityFilter.findRule(moduleRequest));
+        blackhole.consume(securityFilter.findRule(apiRequest));
+        blackhole.consume(securityFilter.findRule(assetRequest));
+    }
+
+    private static RequestHeader request(final String uri) {
+        return new Http.RequestBuilder().uri(uri).build().asScala();
+    }
+}
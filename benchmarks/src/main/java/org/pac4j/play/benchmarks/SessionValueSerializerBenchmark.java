@@ -0,0 +1,66 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.play.store.CompactSessionValueSerializer;
+import org.pac4j.play.store.JavaSessionValueSerializer;
+import org.pac4j.play.store.SessionValueSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of the user profiles saved in the session. The payload size is printed at the setup.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionValueSerializerBenchmark {
+
+    @Param({ "java", "compact" })
+    private String serializerType;
+
+    @Param({ "oidc", "saml" })
+    private String profileType;
+
+    private SessionValueSerializer serializer;
+
+    private LinkedHashMap<String, CommonProfile> profiles;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        serializer = "compact".equals(serializerType) ? new CompactSessionValueSerializer() : new JavaSessionValueSerializer();
+        final CommonProfile profile = "saml".equals(profileType) ? BenchmarkFixtures.samlProfile() : BenchmarkFixtures.oidcProfile();
+        profiles = new LinkedHashMap<>();
+        profiles.put(profile.getClientName(), profile);
+        bytes = serializer.serialize(profiles);
+        System.out.println("payload size (" + serializerType + ", " + profileType + "): " + bytes.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(profiles);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,112 @@
+package org.pac4j.play.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.NoOpDataEncrypter;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import play.mvc.Http;
+import play.mvc.Result;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the application of the headers, cookies, content type and session accumulated by a SAML/OIDC flow to the
+ * response, in a single batched construction versus one intermediate result per change.
+ *
+ * @since 10.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SupplementResponseBenchmark {
+
+    private Http.Request request;
+
+    private PlaySessionStore sessionStore;
+
+    private Http.Session session;
+
+    private Result result;
+
+    @Setup
+    public void setUp() {
+        request = new Http.RequestBuilder().uri("/callback").build();
+        sessionStore = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        session = new Http.Session(Collections.singletonMap("pac4jSessionId", "c3f1e2d4-5b6a-4c7d-8e9f-0a1b2c3d4e5f"));
+        result = new Result(HttpConstants.FOUND, Collections.singletonMap(HttpConstants.LOCATION_HEADER, "/"));
+    }
+
+    @Benchmark
+    public Result batched() {
+        return prepareContext(new PlayWebContext(request, sessionStore)).supplementResponse(result);
+    }
+
+    /**
+     * Previous behaviour: one intermediate result per cookie set, header, content type and session.
+     */
+    @Benchmark
+    public Result oneResultPerChange() {
+        return prepareContext(new UnbatchedPlayWebContext(request, sessionStore)).supplementResponse(result);
+    }
+
+    private PlayWebContext prepareContext(final PlayWebContext context) {
+        context.setResponseHeader(HttpConstants.LOCATION_HEADER, "https://idp.example.com/authorize?client_id=app");
+        context.setResponseHeader("Cache-Control", "no-cache, no-store");
+        context.setResponseHeader("Pragma", "no-cache");
+        context.setResponseHeader("X-Frame-Options", "DENY");
+        context.addResponseCookie(new Cookie("pac4jCsrfToken", "b1946ac92492d2347c6235b4d2611184"));
+        context.addResponseCookie(new Cookie("oidcState", "e59ff97941044f85df5297e1c302d260"));
+        context.setResponseContentType(HttpConstants.HTML_CONTENT_TYPE);
+        context.setNativeSession(session);
+        return context;
+    }
+
+    private static final class UnbatchedPlayWebContext extends PlayWebContext {
+
+        private UnbatchedPlayWebContext(final Http.RequestHeader javaRequest, final PlaySessionStore sessionStore) {
+            super(javaRequest, sessionStore);
+        }
+
+        @Override
+        public Result supplementResponse(final Result result) {
+            Result r = result;
+            if (responseCookies.size() > 0) {
+                r = r.withCookies(responseCookies.toArray(new Http.Cookie[responseCookies.size()]));
+                responseCookies.clear();
+            }
+            if (responseHeaders.size() > 0) {
+                for (final Map.Entry<String, String> header : responseHeaders.entrySet()) {
+                    r = r.withHeader(header.getKey(), header.getValue());
+                }
+                responseHeaders.clear();
+            }
+            if (responseContentType != null) {
+                r = r.as(responseContentType);
+                responseContentType = null;
+            }
+            if (sessionHasChanged) {
+                r = r.withSession(session);
+                session = javaRequest.session();
+                sessionHasChanged = false;
+            }
+            return r;
+        }
+    }
+}
@@ -12,7 +12,6 @@ import play.mvc.Http;
 import play.mvc.Result;
 import play.libs.concurrent.HttpExecutionContext;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import javax.inject.Inject;
@@ -51,8 +50,9 @@ public class CallbackController extends Controller {
         final CallbackLogic<Result, PlayWebContext> bestLogic = FindBest.callbackLogic(callbackLogic, config, DefaultCallbackLogic.INSTANCE);
 
         final PlayWebContext playWebContext = new PlayWebContext(request, playSessionStore);
-        return CompletableFuture.supplyAsync(() -> bestLogic.perform(playWebContext, config, bestAdapter,
-                this.defaultUrl, this.saveInSession, this.multiProfile, this.renewSession, this.defaultClient), ec.current());
+        return playSessionStore.prefetch(playWebContext).thenApplyAsync(v -> bestLogic.perform(playWebContext, config, bestAdapter,
+                this.defaultUrl, this.saveInSession, this.multiProfile, this.renewSession, this.defaultClient), ec.current())
+                .thenCompose(result -> playSessionStore.flushAsync(playWebContext).thenApply(v -> result));
     }
 
     public String getDefaultUrl() {
@@ -12,7 +12,6 @@ import play.mvc.Http;
 import play.mvc.Result;
 import play.libs.concurrent.HttpExecutionContext;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import javax.inject.Inject;
@@ -50,8 +49,9 @@ public class LogoutController extends Controller {
         final LogoutLogic<Result, PlayWebContext> bestLogic = FindBest.logoutLogic(logoutLogic, config, DefaultLogoutLogic.INSTANCE);
 
         final PlayWebContext playWebContext = new PlayWebContext(request, playSessionStore);
-        return CompletableFuture.supplyAsync(() -> bestLogic.perform(playWebContext, config, bestAdapter, this.defaultUrl,
-                this.logoutUrlPattern, this.localLogout, this.destroySession, this.centralLogout), ec.current());
+        return playSessionStore.prefetch(playWebContext).thenApplyAsync(v -> bestLogic.perform(playWebContext, config, bestAdapter, this.defaultUrl,
+                this.logoutUrlPattern, this.localLogout, this.destroySession, this.centralLogout), ec.current())
+                .thenCompose(result -> playSessionStore.flushAsync(playWebContext).thenApply(v -> result));
     }
 
     public String getDefaultUrl() {
@@ -7,6 +7,7 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.play.store.PlaySessionStore;
+import org.pac4j.play.store.SessionSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.api.mvc.AnyContentAsFormUrlEncoded;
@@ -14,7 +15,10 @@ import play.api.mvc.AnyContentAsText;
 import play.api.mvc.Request;
 import play.api.mvc.RequestHeader;
 import play.libs.typedmap.TypedKey;
+import play.libs.typedmap.TypedMap;
+import play.http.HttpEntity;
 import play.mvc.Http;
+import play.mvc.ResponseHeader;
 import play.mvc.Result;
 
 import java.time.Duration;
@@ -39,6 +43,24 @@ public class PlayWebContext implements WebContext {
 
     protected String requestContent;
 
+    protected Map<String, String[]> bodyParameters;
+
+    protected Map<String, String[]> requestParameters;
+
+    protected Collection<Cookie> requestCookies;
+
+    protected Map<String, Object> requestAttributes;
+
+    protected boolean requestAttributesOwned;
+
+    protected String serverName;
+
+    protected int serverPort;
+
+    protected String scheme;
+
+    protected String fullRequestURL;
+
     protected PlaySessionStore sessionStore;
 
     protected Map<String, String> responseHeaders = new HashMap<>();
@@ -51,6 +73,8 @@ public class PlayWebContext implements WebContext {
 
     protected Http.Session session;
 
+    protected SessionSnapshot sessionSnapshot;
+
     public PlayWebContext(final Http.RequestHeader javaRequest, final PlaySessionStore sessionStore) {
         CommonHelper.assertNotNull("request", javaRequest);
         CommonHelper.assertNotNull("sessionStore", sessionStore);
@@ -82,8 +106,12 @@ public class PlayWebContext implements WebContext {
 
     @Override
     public Optional<String> getRequestParameter(final String name) {
-        final Map<String, String[]> parameters = getRequestParameters();
-        final String[] values = parameters.get(name);
+        // URL parameters take precedence over body parameters
+        final Optional<String> urlValue = javaRequest.queryString(name);
+        if (urlValue != null && urlValue.isPresent()) {
+            return urlValue;
+        }
+        final String[] values = getBodyParameters().get(name);
         if (values != null && values.length > 0) {
             return Optional.of(values[0]);
         }
@@ -92,22 +120,29 @@ public class PlayWebContext implements WebContext {
 
     @Override
     public Map<String, String[]> getRequestParameters() {
-        final Map<String, String[]> parameters = new HashMap<>();
-        final Object body = getBody();
-        Map<String, String[]> p = null;
-        if (body instanceof Http.RequestBody) {
-            p = ((Http.RequestBody) body).asFormUrlEncoded();
-        } else if (body instanceof AnyContentAsFormUrlEncoded) {
-            p = ScalaCompatibility.parseBody((AnyContentAsFormUrlEncoded) body);
-        }
-        if (p != null) {
-            parameters.putAll(p);
+        if (requestParameters == null) {
+            final Map<String, String[]> parameters = new HashMap<>(getBodyParameters());
+            final Map<String, String[]> urlParameters = javaRequest.queryString();
+            if (urlParameters != null) {
+                parameters.putAll(urlParameters);
+            }
+            requestParameters = Collections.unmodifiableMap(parameters);
         }
-        final Map<String, String[]> urlParameters = javaRequest.queryString();
-        if (urlParameters != null) {
-            parameters.putAll(urlParameters);
+        return requestParameters;
+    }
+
+    protected Map<String, String[]> getBodyParameters() {
+        if (bodyParameters == null) {
+            final Object body = getBody();
+            Map<String, String[]> p = null;
+            if (body instanceof Http.RequestBody) {
+                p = ((Http.RequestBody) body).asFormUrlEncoded();
+            } else if (body instanceof AnyContentAsFormUrlEncoded) {
+                p = ScalaCompatibility.parseBody((AnyContentAsFormUrlEncoded) body);
+            }
+            bodyParameters = p != null ? p : Collections.emptyMap();
         }
-        return parameters;
+        return bodyParameters;
     }
 
     protected Object getBody() {
@@ -126,26 +161,67 @@ public class PlayWebContext implements WebContext {
 
     @Override
     public String getServerName() {
-        String[] split = javaRequest.host().split(":");
-        return split[0];
+        if (serverName == null) {
+            parseHost();
+        }
+        return serverName;
     }
 
     @Override
     public int getServerPort() {
-        String defaultPort = javaRequest.secure() ? "443" : "80";
+        if (serverName == null) {
+            parseHost();
+        }
+        return serverPort;
+    }
 
-        String[] split = javaRequest.host().split(":");
-        String portStr = split.length > 1 ? split[1] : defaultPort;
-        return Integer.parseInt(portStr);
+    /**
+     * Parse the host of the request (<code>name</code>, <code>name:port</code>, <code>[IPv6]</code> or
+     * <code>[IPv6]:port</code>) into the server name and port.
+     */
+    protected void parseHost() {
+        final String host = javaRequest.host();
+        final int defaultPort = javaRequest.secure() ? 443 : 80;
+        final int portSeparator;
+        if (host.startsWith("[")) {
+            final int end = host.indexOf(']');
+            portSeparator = end > 0 && host.length() > end + 1 && host.charAt(end + 1) == ':' ? end + 1 : -1;
+        } else {
+            final int colon = host.indexOf(':');
+            // several colons: a non bracketed IPv6 address without port
+            portSeparator = colon == host.lastIndexOf(':') ? colon : -1;
+        }
+        if (portSeparator >= 0) {
+            serverPort = parsePort(host.substring(portSeparator + 1), defaultPort);
+            serverName = host.substring(0, portSeparator);
+        } else {
+            serverPort = defaultPort;
+            serverName = host;
+        }
+    }
+
+    // the Host header is controlled by the client: an empty or invalid port is the default port
+    private static int parsePort(final String port, final int defaultPort) {
+        if (port.isEmpty() || port.length() > 5) {
+            return defaultPort;
+        }
+        int value = 0;
+        for (int i = 0; i < port.length(); i++) {
+            final char c = port.charAt(i);
+            if (c < '0' || c > '9') {
+                return defaultPort;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= 65535 ? value : defaultPort;
     }
 
     @Override
     public String getScheme() {
-        if (javaRequest.secure()) {
-            return "https";
-        } else {
-            return "http";
+        if (scheme == null) {
+            scheme = javaRequest.secure() ? "https" : "http";
         }
+        return scheme;
     }
 
     @Override
@@ -153,7 +229,10 @@ public class PlayWebContext implements WebContext {
 
     @Override
     public String getFullRequestURL() {
-        return getScheme() + "://" + javaRequest.host() + javaRequest.uri();
+        if (fullRequestURL == null) {
+            fullRequestURL = getScheme() + "://" + javaRequest.host() + javaRequest.uri();
+        }
+        return fullRequestURL;
     }
 
     @Override
@@ -163,35 +242,73 @@ public class PlayWebContext implements WebContext {
 
     @Override
     public Optional<Object> getRequestAttribute(final String name) {
-        Map<String, Object> attributes = javaRequest.attrs().getOptional(PAC4J_REQUEST_ATTRIBUTES).orElse(new HashMap<>());
-        return Optional.ofNullable(attributes.get(name));
+        return Optional.ofNullable(getRequestAttributes().get(name));
     }
 
     @Override
     public void setRequestAttribute(final String name, final Object value) {
-        Map<String, Object> attributes = javaRequest.attrs().getOptional(PAC4J_REQUEST_ATTRIBUTES).orElse(new HashMap<>());
-        attributes.put(name, value);
-        javaRequest = javaRequest.addAttr(PAC4J_REQUEST_ATTRIBUTES, attributes);
+        if (!requestAttributesOwned) {
+            // the map of the original request is reused: it is shared with the contexts which previously handled the request
+            final Map<String, Object> attributes = getRequestAttributes();
+            requestAttributes = attributes.isEmpty() ? new HashMap<>() : attributes;
+            requestAttributesOwned = true;
+        }
+        requestAttributes.put(name, value);
+    }
+
+    /**
+     * The request attributes: those of the original request (if any), or a map created at the first set.
+     * It is pushed to the Play request by {@link #supplementRequest(Http.RequestHeader)}.
+     *
+     * @return the request attributes
+     */
+    protected Map<String, Object> getRequestAttributes() {
+        if (requestAttributes == null) {
+            requestAttributes = javaRequest.attrs().getOptional(PAC4J_REQUEST_ATTRIBUTES).orElse(Collections.emptyMap());
+        }
+        return requestAttributes;
     }
 
     @Override
     public Collection<Cookie> getRequestCookies() {
-        final List<Cookie> cookies = new ArrayList<>();
-        final Http.Cookies httpCookies = javaRequest.cookies();
-        httpCookies.forEach(httpCookie -> {
-            final Cookie cookie = new Cookie(httpCookie.name(), httpCookie.value());
-            if(httpCookie.domain() != null) {
-                cookie.setDomain(httpCookie.domain());
-            }
-            cookie.setHttpOnly(httpCookie.httpOnly());
-            if(httpCookie.maxAge() != null) {
-                cookie.setMaxAge(httpCookie.maxAge());
+        if (requestCookies == null) {
+            final List<Cookie> cookies = new ArrayList<>();
+            javaRequest.cookies().forEach(httpCookie -> cookies.add(toPac4jCookie(httpCookie)));
+            requestCookies = Collections.unmodifiableList(cookies);
+        }
+        return requestCookies;
+    }
+
+    /**
+     * Get a request cookie by its name, without converting all the request cookies.
+     *
+     * @param name the name of the cookie
+     * @return the cookie, if any
+     */
+    public Optional<Cookie> getRequestCookie(final String name) {
+        if (requestCookies != null) {
+            for (final Cookie cookie : requestCookies) {
+                if (cookie.getName().equals(name)) {
+                    return Optional.of(cookie);
+                }
             }
-            cookie.setPath(httpCookie.path());
-            cookie.setSecure(httpCookie.secure());
-            cookies.add(cookie);
-        });
-        return cookies;
+            return Optional.empty();
+        }
+        return javaRequest.cookies().get(name).map(this::toPac4jCookie);
+    }
+
+    protected Cookie toPac4jCookie(final Http.Cookie httpCookie) {
+        final Cookie cookie = new Cookie(httpCookie.name(), httpCookie.value());
+        if(httpCookie.domain() != null) {
+            cookie.setDomain(httpCookie.domain());
+        }
+        cookie.setHttpOnly(httpCookie.httpOnly());
+        if(httpCookie.maxAge() != null) {
+            cookie.setMaxAge(httpCookie.maxAge());
+        }
+        cookie.setPath(httpCookie.path());
+        cookie.setSecure(httpCookie.secure());
+        return cookie;
     }
 
     @Override
@@ -217,6 +334,15 @@ public class PlayWebContext implements WebContext {
         responseCookies.add(responseCookie);
     }
 
+    /**
+     * Add a Play cookie to the response, for the attributes not supported by the pac4j cookies (like SameSite).
+     *
+     * @param cookie the Play cookie
+     */
+    public void addNativeResponseCookie(final Http.Cookie cookie) {
+        responseCookies.add(cookie);
+    }
+
     @Override
     public void setResponseContentType(final String contentType) {
         responseContentType = contentType;
@@ -244,41 +370,92 @@ public class PlayWebContext implements WebContext {
         sessionHasChanged = true;
     }
 
+    /**
+     * Get the session values loaded by the session store for this context, if any.
+     *
+     * @return the session snapshot
+     */
+    public SessionSnapshot getSessionSnapshot() {
+        return sessionSnapshot;
+    }
+
+    public void setSessionSnapshot(final SessionSnapshot sessionSnapshot) {
+        this.sessionSnapshot = sessionSnapshot;
+    }
+
     public Http.Request supplementRequest(final Http.Request request) {
-        logger.trace("supplement request with: {}", this.javaRequest.attrs());
-        return request.withAttrs(this.javaRequest.attrs());
+        sessionStore.flush(this);
+        final TypedMap attrs = getSupplementedAttrs();
+        logger.trace("supplement request with: {}", attrs);
+        return request.withAttrs(attrs);
     }
 
     public Http.RequestHeader supplementRequest(final Http.RequestHeader request) {
-        logger.trace("supplement request with: {}", this.javaRequest.attrs());
-        return request.withAttrs(this.javaRequest.attrs());
+        sessionStore.flush(this);
+        final TypedMap attrs = getSupplementedAttrs();
+        logger.trace("supplement request with: {}", attrs);
+        return request.withAttrs(attrs);
+    }
+
+    protected TypedMap getSupplementedAttrs() {
+        final TypedMap attrs = javaRequest.attrs();
+        if (requestAttributesOwned) {
+            return attrs.put(PAC4J_REQUEST_ATTRIBUTES, requestAttributes);
+        }
+        return attrs;
     }
 
     public Result supplementResponse(final Result result) {
-        Result r = result;
-        if (responseCookies.size() > 0) {
-            logger.trace("supplement response with cookies: {}", responseCookies);
-            r = r.withCookies(responseCookies.toArray(new Http.Cookie[responseCookies.size()]));
-            responseCookies.clear();
+        sessionStore.flush(this);
+        final boolean hasCookies = responseCookies.size() > 0;
+        final boolean hasHeaders = responseHeaders.size() > 0;
+        if (!hasCookies && !hasHeaders && responseContentType == null && !sessionHasChanged) {
+            return result;
         }
-        if (responseHeaders.size() > 0) {
-            for (final Map.Entry<String, String> header : responseHeaders.entrySet()) {
-                logger.trace("supplement response with header: {}", header);
-                r = r.withHeader(header.getKey(), header.getValue());
-            }
+
+        // all the changes are applied in a single result instead of building an intermediate result for each of them
+        Map<String, String> headers = result.headers();
+        if (hasHeaders) {
+            logger.trace("supplement response with headers: {}", responseHeaders);
+            headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(result.headers());
+            headers.putAll(responseHeaders);
             responseHeaders.clear();
         }
+        HttpEntity body = result.body();
         if (responseContentType != null) {
             logger.trace("supplement response with type: {}", responseContentType);
-            r = r.as(responseContentType);
+            body = body.as(responseContentType);
             responseContentType = null;
         }
+        final List<Http.Cookie> cookies = new ArrayList<>();
+        for (final Http.Cookie cookie : result.cookies()) {
+            if (!hasCookies || !containsCookie(responseCookies, cookie.name())) {
+                cookies.add(cookie);
+            }
+        }
+        if (hasCookies) {
+            logger.trace("supplement response with cookies: {}", responseCookies);
+            cookies.addAll(responseCookies);
+            responseCookies.clear();
+        }
+        Http.Session newSession = result.session();
         if (sessionHasChanged) {
             logger.trace("supplement response with session: {}", session);
-            r = r.withSession(session);
+            newSession = session;
             session = javaRequest.session();
             sessionHasChanged = false;
         }
-        return r;
+        final ResponseHeader header = new ResponseHeader(result.status(), headers, result.reasonPhrase().orElse(null));
+        return new Result(header, body, newSession, result.flash(), cookies);
+    }
+
+    private static boolean containsCookie(final List<Http.Cookie> cookies, final String name) {
+        for (final Http.Cookie cookie : cookies) {
+            if (cookie.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
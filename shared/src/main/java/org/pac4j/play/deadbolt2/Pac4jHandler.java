@@ -70,13 +70,14 @@ public class Pac4jHandler extends DefaultSecurityLogic<Result, PlayWebContext> i
 
     @Override
     public CompletionStage<Optional<Result>> beforeAuthCheck(final Http.RequestHeader requestHeader, final Optional<String> content) {
-        return CompletableFuture.supplyAsync(() -> {
-            final Optional<CommonProfile> profile = getProfile(requestHeader);
+        final PlayWebContext playWebContext = new PlayWebContext(requestHeader, playSessionStore);
+        // the session data are loaded without blocking, then the logic goes back to the HTTP execution context
+        final CompletionStage<Optional<Result>> result = playSessionStore.prefetch(playWebContext).thenApplyAsync(v -> {
+            final Optional<CommonProfile> profile = getProfile(playWebContext);
             if (profile.isPresent()) {
                 logger.debug("profile found -> returning empty");
                 return Optional.empty();
             } else {
-                final PlayWebContext playWebContext = new PlayWebContext(requestHeader, playSessionStore);
                 final HttpActionAdapter<Result, PlayWebContext> httpActionAdapter = config.getHttpActionAdapter();
                 final List<Client> currentClients = getClientFinder().find(config.getClients(), playWebContext, clients);
                 logger.debug("currentClients: {}", currentClients);
@@ -90,7 +91,7 @@ public class Pac4jHandler extends DefaultSecurityLogic<Result, PlayWebContext> i
                         if (credentials.isPresent()) {
                             CommonProfile userProfile = credentials.get().getUserProfile();
                             if (userProfile != null) {
-                                setProfile(requestHeader, userProfile);
+                                setProfile(playWebContext, userProfile);
                                 return Optional.empty();
                             }
                         }
@@ -110,12 +111,15 @@ public class Pac4jHandler extends DefaultSecurityLogic<Result, PlayWebContext> i
                 return Optional.of(httpActionAdapter.adapt(action, playWebContext));
             }
         }, httpExecutionContext.current());
+        // the result is returned once the session data are written
+        return result.thenCompose(r -> playSessionStore.flushAsync(playWebContext).thenApply(v -> r));
     }
 
     @Override
     public CompletionStage<Optional<? extends Subject>> getSubject(final Http.RequestHeader requestHeader) {
-        return CompletableFuture.supplyAsync(() -> {
-            final Optional<CommonProfile> profile = getProfile(requestHeader);
+        final PlayWebContext playWebContext = new PlayWebContext(requestHeader, playSessionStore);
+        return playSessionStore.prefetch(playWebContext).thenApplyAsync(v -> {
+            final Optional<CommonProfile> profile = getProfile(playWebContext);
             if (profile.isPresent()) {
                 logger.debug("profile found: {} -> building a subject", profile);
                 return Optional.of(new Pac4jSubject(profile.get()));
@@ -131,14 +135,12 @@ public class Pac4jHandler extends DefaultSecurityLogic<Result, PlayWebContext> i
         return rolePermissionsHandler.getPermissionsForRole(clients, roleName, httpExecutionContext);
     }
 
-    private Optional<CommonProfile> getProfile(final Http.RequestHeader requestHeader) {
-        final PlayWebContext playWebContext = new PlayWebContext(requestHeader, playSessionStore);
+    private Optional<CommonProfile> getProfile(final PlayWebContext playWebContext) {
         final ProfileManager manager = new ProfileManager(playWebContext);
         return manager.getLikeDefaultSecurityLogic(true);
     }
 
-    private void setProfile(final Http.RequestHeader requestHeader, CommonProfile profile) {
-        final PlayWebContext playWebContext = new PlayWebContext(requestHeader, playSessionStore);
+    private void setProfile(final PlayWebContext playWebContext, CommonProfile profile) {
         playWebContext.setRequestAttribute(Pac4jConstants.USER_PROFILES, profile);
     }
 
@@ -10,8 +10,10 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.play.PlayWebContext;
 import org.pac4j.play.http.PlayHttpActionAdapter;
 import org.pac4j.play.store.PlaySessionStore;
+import org.pac4j.play.util.LocalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.libs.concurrent.HttpExecutionContext;
 import play.mvc.Action;
 import play.mvc.Http;
 import play.mvc.Result;
@@ -21,7 +23,10 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>This filter protects an URL.</p>
@@ -55,37 +60,118 @@ public class SecureAction extends Action<Result> {
         }
     }
 
+    // the maximum number of annotations per annotation type whose parameters are cached: Play reads the annotations of a
+    // route once, the same instances are given to the actions of each request; beyond, the least read ones are evicted
+    private static final int MAX_CACHED_ANNOTATIONS = 1000;
+
+    // the parameters by annotation instance, held by the proxy class of the annotation type so that they do not pin its
+    // class loader (reloaded in dev mode)
+    private static final ClassValue<LocalCache<AnnotationKey, SecureParameters>> CACHED_PARAMETERS =
+            new ClassValue<LocalCache<AnnotationKey, SecureParameters>>() {
+        @Override
+        protected LocalCache<AnnotationKey, SecureParameters> computeValue(final Class<?> type) {
+            return new LocalCache<>(MAX_CACHED_ANNOTATIONS, 0, TimeUnit.SECONDS);
+        }
+    };
+
     final private Config config;
 
     final private PlaySessionStore sessionStore;
 
+    final private HttpExecutionContext ec;
+
     @Inject
-    public SecureAction(final Config config, final PlaySessionStore playSessionStore) {
+    public SecureAction(final Config config, final PlaySessionStore playSessionStore, final HttpExecutionContext ec) {
         this.config = config;
         this.sessionStore = playSessionStore;
+        this.ec = ec;
+    }
+
+    /**
+     * Without the HTTP execution context of Play, the security logic waiting for session data loaded asynchronously
+     * (see {@link PlaySessionStore#prefetch}) runs on the common fork/join pool, outside of the application thread
+     * context: use the injected constructor instead.
+     *
+     * @param config the configuration
+     * @param playSessionStore the session store
+     * @deprecated use {@link #SecureAction(Config, PlaySessionStore, HttpExecutionContext)}
+     */
+    @Deprecated
+    public SecureAction(final Config config, final PlaySessionStore playSessionStore) {
+        this(config, playSessionStore, new HttpExecutionContext(ForkJoinPool.commonPool()));
     }
 
     @Override
     public CompletionStage<Result> call(final Http.Request req) {
         try {
-          final InvocationHandler invocationHandler = Proxy.getInvocationHandler(configuration);
-          final String clients = getStringParam(invocationHandler, CLIENTS_METHOD, null);
-          final String authorizers = getStringParam(invocationHandler, AUTHORIZERS_METHOD, null);
-          final String matchers = getStringParam(invocationHandler, MATCHERS_METHOD, null);
-          final boolean multiProfile = getBooleanParam(invocationHandler, MULTI_PROFILE_METHOD, false);
-
+          final SecureParameters parameters = getParameters();
           final PlayWebContext playWebContext = new PlayWebContext(req, sessionStore);
-          return internalCall(req, playWebContext, clients, authorizers, matchers, multiProfile);
+          return internalCall(req, playWebContext, parameters.getClients(), parameters.getAuthorizers(),
+                  parameters.getMatchers(), parameters.isMultiProfile());
         } catch(Throwable t) {
           throw new RuntimeException(t);
         }        
     }
 
+    /**
+     * Get the parameters of the annotation of this action, read once per annotation instance: no reflection is involved
+     * once they are cached.
+     *
+     * @return the parameters
+     * @throws Throwable if the annotation cannot be read
+     */
+    protected SecureParameters getParameters() throws Throwable {
+        final Object annotation = configuration;
+        final LocalCache<AnnotationKey, SecureParameters> cachedParameters = CACHED_PARAMETERS.get(annotation.getClass());
+        final AnnotationKey key = new AnnotationKey(annotation);
+        SecureParameters parameters = cachedParameters.get(key);
+        if (parameters == null) {
+            parameters = readParameters();
+            cachedParameters.put(key, parameters);
+        }
+        return parameters;
+    }
+
+    /**
+     * Read the parameters of the annotation of this action.
+     *
+     * @return the parameters
+     * @throws Throwable if the annotation cannot be read
+     */
+    protected SecureParameters readParameters() throws Throwable {
+        final InvocationHandler invocationHandler = Proxy.getInvocationHandler(configuration);
+        final String clients = getStringParam(invocationHandler, CLIENTS_METHOD, null);
+        final String authorizers = getStringParam(invocationHandler, AUTHORIZERS_METHOD, null);
+        final String matchers = getStringParam(invocationHandler, MATCHERS_METHOD, null);
+        final boolean multiProfile = getBooleanParam(invocationHandler, MULTI_PROFILE_METHOD, false);
+        return new SecureParameters(clients, authorizers, matchers, multiProfile);
+    }
+
     public CompletionStage<Result> call(final PlayWebContext webContext, final String clients, final String authorizers, final String matchers, final boolean multiProfile) throws Throwable {
         return internalCall(null, webContext, clients, authorizers, matchers, multiProfile);
     }
 
     protected CompletionStage<Result> internalCall(final Http.Request req, final PlayWebContext webContext, final String clients, final String authorizers, final String matchers, final boolean multiProfile) throws Throwable {
+        // the session data are loaded without blocking before the security logic accesses them
+        final CompletableFuture<Void> prefetch = sessionStore.prefetch(webContext).toCompletableFuture();
+        final CompletionStage<Result> result;
+        if (prefetch.isDone() && !prefetch.isCompletedExceptionally()) {
+            result = performSecurityLogic(req, webContext, clients, authorizers, matchers, multiProfile);
+        } else {
+            // the security logic goes back to the HTTP execution context instead of running on the cache thread
+            result = prefetch.thenComposeAsync(v -> {
+                try {
+                    return performSecurityLogic(req, webContext, clients, authorizers, matchers, multiProfile);
+                } catch (final Throwable t) {
+                    throw new CompletionException(t);
+                }
+            }, ec.current());
+        }
+        // the result is returned once the session data are written
+        return result.thenCompose(r -> sessionStore.flushAsync(webContext).thenApply(v -> r));
+    }
+
+    protected CompletionStage<Result> performSecurityLogic(final Http.Request req, final PlayWebContext webContext, final String clients, final String authorizers, final String matchers, final boolean multiProfile) throws Throwable {
 
         final HttpActionAdapter<Result, PlayWebContext> bestAdapter = FindBest.httpActionAdapter(null, config, PlayHttpActionAdapter.INSTANCE);
         final SecurityLogic<CompletionStage<Result>, PlayWebContext> bestLogic = FindBest.securityLogic(securityLogic, config, DefaultSecurityLogic.INSTANCE);
@@ -127,4 +213,24 @@ public class SecureAction extends Action<Result> {
     public void setSecurityLogic(final SecurityLogic<CompletionStage<Result>, PlayWebContext> securityLogic) {
         this.securityLogic = securityLogic;
     }
+
+    // the annotations are compared by identity: their equals and hashCode are reflective
+    private static final class AnnotationKey {
+
+        private final Object annotation;
+
+        private AnnotationKey(final Object annotation) {
+            this.annotation = annotation;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof AnnotationKey && ((AnnotationKey) o).annotation == annotation;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(annotation);
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package org.pac4j.play.java;
+
+import org.pac4j.core.util.CommonHelper;
+
+/**
+ * The parameters of a {@link Secure} annotation, read once per annotation instance by the {@link SecureAction}.
+ *
+ * @since 10.0.1
+ */
+public final class SecureParameters {
+
+    private final String clients;
+
+    private final String authorizers;
+
+    private final String matchers;
+
+    private final boolean multiProfile;
+
+    public SecureParameters(final String clients, final String authorizers, final String matchers, final boolean multiProfile) {
+        this.clients = clients;
+        this.authorizers = authorizers;
+        this.matchers = matchers;
+        this.multiProfile = multiProfile;
+    }
+
+    public String getClients() {
+        return clients;
+    }
+
+    public String getAuthorizers() {
+        return authorizers;
+    }
+
+    public String getMatchers() {
+        return matchers;
+    }
+
+    public boolean isMultiProfile() {
+        return multiProfile;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "clients", clients, "authorizers", authorizers, "matchers", matchers,
+                "multiProfile", multiProfile);
+    }
+}
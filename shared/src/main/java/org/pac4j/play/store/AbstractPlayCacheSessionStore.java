@@ -0,0 +1,183 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.play.PlayWebContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.mvc.Http;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * The session stores which save the session values in a cache, only an identifier is saved into the Play session.
+ * The session values are read from the cache once per web context (see {@link SessionSnapshot}): the subclasses define
+ * how the snapshot is loaded and written.
+ *
+ * @since 10.0.1
+ */
+public abstract class AbstractPlayCacheSessionStore implements PlaySessionStore {
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    // prefix for the cache
+    private String prefix = null;
+
+    // whether the session values are written once when the web context is supplemented instead of for each set
+    private boolean bufferedWrites = false;
+
+    String getPrefixedSessionKey(final String sessionId) {
+        if (this.prefix != null) {
+            return this.prefix + sessionId;
+        } else {
+            return sessionId;
+        }
+    }
+
+    @Override
+    public String getOrCreateSessionId(final PlayWebContext context) {
+        // get current sessionId from session or from request
+        String sessionId = getSessionIdFromSessionOrRequest(context);
+        if (sessionId == null) {
+            // generate id for session
+            sessionId = java.util.UUID.randomUUID().toString();
+            logger.debug("generated sessionId: {}", sessionId);
+            // and save it to session/request
+            setSessionIdInSession(context, sessionId);
+            context.setRequestAttribute(Pac4jConstants.SESSION_ID, sessionId);
+            sessionIdCreated(context, sessionId);
+        }
+        return sessionId;
+    }
+
+    /**
+     * Called when a new session identifier is generated for the web context: no session value can exist yet for it.
+     *
+     * @param context the web context
+     * @param sessionId the new session identifier
+     */
+    protected void sessionIdCreated(final PlayWebContext context, final String sessionId) {}
+
+    protected String getSessionIdFromSessionOrRequest(final PlayWebContext context) {
+        String sessionId = context.getNativeSession().getOptional(Pac4jConstants.SESSION_ID).orElse(null);
+        logger.trace("retrieved sessionId from session: {}", sessionId);
+        if (sessionId == null) {
+            sessionId = (String) context.getRequestAttribute(Pac4jConstants.SESSION_ID).orElse(null);
+            logger.trace("retrieved sessionId from request: {}", sessionId);
+            // re-save it in session if defined
+            if (sessionId != null) {
+                logger.trace("re-saving sessionId in session: {}", sessionId);
+                setSessionIdInSession(context, sessionId);
+            }
+        }
+        return sessionId;
+    }
+
+    protected void setSessionIdInSession(final PlayWebContext context, final String sessionId) {
+        context.setNativeSession(context.getNativeSession().adding(Pac4jConstants.SESSION_ID, sessionId));
+    }
+
+    @Override
+    public Optional<Object> get(final PlayWebContext context, final String key) {
+        final String sessionId = getOrCreateSessionId(context);
+        final Object value = getSnapshot(context, sessionId).getValues().get(key);
+        logger.trace("get, sessionId = {}, key = {} -> {}", sessionId, key, value);
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    public void set(final PlayWebContext context, final String key, final Object value) {
+        final String sessionId = getOrCreateSessionId(context);
+        final SessionSnapshot snapshot = getSnapshot(context, sessionId);
+        logger.trace("set, sessionId = {}, key = {}, value = {}", sessionId, key, value);
+        if (snapshot.put(key, value) && !bufferedWrites) {
+            writeSnapshot(snapshot);
+        }
+    }
+
+    @Override
+    public void flush(final PlayWebContext context) {
+        final SessionSnapshot snapshot = context.getSessionSnapshot();
+        if (snapshot != null && snapshot.isDirty()) {
+            logger.trace("flush, sessionId = {}, dirty keys = {}", snapshot.getSessionId(), snapshot.getDirtyKeys());
+            writeSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * Write the changes of the session values in the cache and clear the dirty keys of the snapshot. Only the dirty keys
+     * must be written (see {@link SessionSnapshot#merge(java.util.Map, java.util.Map)}), the other session values may
+     * have been changed by a concurrent request since the snapshot was loaded.
+     *
+     * @param snapshot the session snapshot
+     */
+    protected abstract void writeSnapshot(SessionSnapshot snapshot);
+
+    /**
+     * Get the session values for the context: they are loaded from the cache by the first access and kept in the web
+     * context for the next ones.
+     *
+     * @param context the web context
+     * @param sessionId the session identifier
+     * @return the session snapshot
+     */
+    protected abstract SessionSnapshot getSnapshot(PlayWebContext context, String sessionId);
+
+    @Override
+    public boolean destroySession(final PlayWebContext context) {
+        final String sessionId = getSessionIdFromSessionOrRequest(context);
+        if (sessionId != null) {
+            context.setNativeSession(new Http.Session(new HashMap<>()));
+            context.setRequestAttribute(Pac4jConstants.SESSION_ID, null);
+            context.setSessionSnapshot(null);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final PlayWebContext context) {
+        return Optional.ofNullable(getSessionIdFromSessionOrRequest(context));
+    }
+
+    @Override
+    public Optional<SessionStore<PlayWebContext>> buildFromTrackableSession(final PlayWebContext context, final Object trackableSession) {
+        setSessionIdInSession(context, (String) trackableSession);
+        context.setRequestAttribute(Pac4jConstants.SESSION_ID, trackableSession);
+        return Optional.of(this);
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    public boolean isBufferedWrites() {
+        return bufferedWrites;
+    }
+
+    /**
+     * Buffer the changes of the session values and write them in a single cache update when the web context supplements
+     * the request or the response. Like the unbuffered writes, this update only applies the changed keys to the session
+     * values read again from the cache: the keys changed by another request in the meantime are kept. The session values
+     * set through a web context which is never supplemented are then not saved.
+     *
+     * @param bufferedWrites whether the writes are buffered
+     */
+    public void setBufferedWrites(final boolean bufferedWrites) {
+        this.bufferedWrites = bufferedWrites;
+    }
+
+    public abstract int getTimeout();
+
+    public abstract void setTimeout(int timeout);
+
+    protected void setDefaultTimeout() {
+        // 1 hour = 3600 seconds
+        setTimeout(3600);
+    }
+}
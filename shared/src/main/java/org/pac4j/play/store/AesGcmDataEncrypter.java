@@ -0,0 +1,183 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A DataEncrypter based on the JCA and AES-GCM: the encrypted bytes are the random 12 bytes IV followed by the
+ * ciphertext and the 16 bytes authentication tag. The ciphers and the output buffer of the {@link ByteBuffer} functions
+ * are reused by each thread.
+ *
+ * In the Shiro compatible mode, the bytes which are not AES-GCM encrypted with the key are decrypted as the bytes of
+ * the {@link ShiroAesDataEncrypter} built with the same key: AES-GCM with a 16 bytes IV (Shiro 1.4.2 and later), or
+ * AES-CBC with a 16 bytes IV (the previous Shiro versions).
+ *
+ * @since 10.0.1
+ */
+public class AesGcmDataEncrypter implements DataEncrypter {
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 16;
+
+    private static final int SHIRO_IV_LENGTH = 16;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SecretKeySpec keySpec;
+
+    private final ThreadLocal<Cipher> gcmCipher = ThreadLocal.withInitial(() -> newCipher("AES/GCM/NoPadding"));
+
+    private final ThreadLocal<Cipher> cbcCipher = ThreadLocal.withInitial(() -> newCipher("AES/CBC/PKCS5Padding"));
+
+    private final ReusableBuffer outputBuffer = new ReusableBuffer();
+
+    private boolean shiroCompatible;
+
+    public AesGcmDataEncrypter(final byte[] key) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertTrue(key.length == 16 || key.length == 24 || key.length == 32,
+                "key must be 16, 24 or 32 bytes long");
+        this.keySpec = new SecretKeySpec(key, "AES");
+    }
+
+    public AesGcmDataEncrypter() {
+        final byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        this.keySpec = new SecretKeySpec(bytes, "AES");
+    }
+
+    private static Cipher newCipher(final String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    @Override
+    public byte[] decrypt(final byte[] encryptedBytes) {
+        if (encryptedBytes == null) {
+            return null;
+        }
+        final ByteBuffer decrypted = decryptBuffer(ByteBuffer.wrap(encryptedBytes));
+        return Arrays.copyOfRange(decrypted.array(), decrypted.position(), decrypted.limit());
+    }
+
+    @Override
+    public ByteBuffer decryptBuffer(final ByteBuffer encrypted) {
+        if (encrypted == null) {
+            return null;
+        }
+        if (!encrypted.hasArray()) {
+            return DataEncrypter.super.decryptBuffer(encrypted);
+        }
+        final byte[] bytes = encrypted.array();
+        final int offset = encrypted.arrayOffset() + encrypted.position();
+        final int length = encrypted.remaining();
+        // the decrypted data is never larger than the encrypted data
+        final byte[] output = outputBuffer.get(length);
+        try {
+            return ByteBuffer.wrap(output, 0, decryptGcm(bytes, offset, length, IV_LENGTH, output));
+        } catch (final AEADBadTagException e) {
+            if (shiroCompatible) {
+                return ByteBuffer.wrap(output, 0, decryptShiro(bytes, offset, length, output));
+            }
+            throw new TechnicalException(e);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private int decryptGcm(final byte[] bytes, final int offset, final int length, final int ivLength, final byte[] output)
+            throws GeneralSecurityException {
+        if (length < ivLength + TAG_LENGTH) {
+            throw new AEADBadTagException("Too short encrypted data");
+        }
+        final Cipher cipher = gcmCipher.get();
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH * 8, bytes, offset, ivLength));
+        return cipher.doFinal(bytes, offset + ivLength, length - ivLength, output, 0);
+    }
+
+    private int decryptShiro(final byte[] bytes, final int offset, final int length, final byte[] output) {
+        try {
+            return decryptGcm(bytes, offset, length, SHIRO_IV_LENGTH, output);
+        } catch (final AEADBadTagException e) {
+            logger.debug("Not Shiro AES-GCM data, trying AES-CBC");
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+        try {
+            final Cipher cipher = cbcCipher.get();
+            cipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(bytes, offset, SHIRO_IV_LENGTH));
+            return cipher.doFinal(bytes, offset + SHIRO_IV_LENGTH, length - SHIRO_IV_LENGTH, output, 0);
+        } catch (final GeneralSecurityException | IllegalArgumentException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    @Override
+    public byte[] encrypt(final byte[] rawBytes) {
+        if (rawBytes == null) {
+            return null;
+        }
+        final byte[] encryptedBytes = new byte[IV_LENGTH + rawBytes.length + TAG_LENGTH];
+        encrypt(rawBytes, 0, rawBytes.length, encryptedBytes);
+        return encryptedBytes;
+    }
+
+    @Override
+    public ByteBuffer encryptBuffer(final ByteBuffer raw) {
+        if (raw == null) {
+            return null;
+        }
+        if (!raw.hasArray()) {
+            return DataEncrypter.super.encryptBuffer(raw);
+        }
+        final int length = IV_LENGTH + raw.remaining() + TAG_LENGTH;
+        final byte[] output = outputBuffer.get(length);
+        encrypt(raw.array(), raw.arrayOffset() + raw.position(), raw.remaining(), output);
+        return ByteBuffer.wrap(output, 0, length);
+    }
+
+    private void encrypt(final byte[] bytes, final int offset, final int length, final byte[] output) {
+        try {
+            final byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+            final Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH * 8, iv));
+            cipher.doFinal(bytes, offset, length, output, IV_LENGTH);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    public boolean isShiroCompatible() {
+        return shiroCompatible;
+    }
+
+    /**
+     * Define whether the data encrypted by the {@link ShiroAesDataEncrypter} with the same key can still be decrypted,
+     * to migrate the existing session cookies.
+     *
+     * @param shiroCompatible whether the Shiro AES-CBC data can be decrypted
+     */
+    public void setShiroCompatible(final boolean shiroCompatible) {
+        this.shiroCompatible = shiroCompatible;
+    }
+}
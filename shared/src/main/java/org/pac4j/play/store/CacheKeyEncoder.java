@@ -0,0 +1,19 @@
+package org.pac4j.play.store;
+
+/**
+ * Encodes the keys of the {@link PlayCacheStore} and {@link PlayAsyncCacheStore} into the <code>String</code> keys of the
+ * Play cache.
+ *
+ * @since 10.0.1
+ */
+@FunctionalInterface
+public interface CacheKeyEncoder {
+
+    /**
+     * Encode a key.
+     *
+     * @param key the key of the store
+     * @return the key in the cache
+     */
+    String encode(Object key);
+}
@@ -0,0 +1,381 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.BasicUserProfile;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.JavaSerializationHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact binary serialization of the user profiles and of the strings, numbers, booleans, dates, lists, sets and maps
+ * of their attributes and of the session. The other values are Java serialized by the fallback serializer.
+ * The lists of the <code>java.util</code> package are read back as {@link ArrayList}.
+ *
+ * Only the profiles extending {@link BasicUserProfile} with a public no-arg constructor and no additional instance
+ * fields (their state is in the attributes, like for the pac4j profiles) are written in the compact format.
+ *
+ * The compact format starts with a version byte, which differs from the first byte of the Java serialization stream
+ * (<code>0xAC 0xED</code>): the values Java serialized before remain readable.
+ *
+ * @since 10.0.1
+ */
+public class CompactSessionValueSerializer implements SessionValueSerializer {
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte DATE = 7;
+    private static final byte ARRAY_LIST = 8;
+    private static final byte HASH_SET = 9;
+    private static final byte LINKED_HASH_SET = 10;
+    private static final byte HASH_MAP = 11;
+    private static final byte LINKED_HASH_MAP = 12;
+    private static final byte PROFILE = 13;
+    private static final byte JAVA = 14;
+
+    private final JavaSessionValueSerializer fallback;
+
+    private final Map<Class<?>, Boolean> compactProfileClasses = new ConcurrentHashMap<>();
+
+    public CompactSessionValueSerializer() {
+        this(new JavaSerializationHelper());
+    }
+
+    public CompactSessionValueSerializer(final JavaSerializationHelper helper) {
+        this.fallback = new JavaSessionValueSerializer(helper);
+    }
+
+    @Override
+    public byte[] serialize(final Object value) {
+        if (!isCompact(value)) {
+            return fallback.serialize(value);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeValue(out, value);
+        } catch (final IOException e) {
+            throw new TechnicalException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSION) {
+            return fallback.deserialize(bytes);
+        }
+        return read(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Object deserializeBuffer(final ByteBuffer bytes) {
+        if (bytes == null || !bytes.hasRemaining()) {
+            return null;
+        }
+        if (!bytes.hasArray() || bytes.get(bytes.position()) != VERSION) {
+            return SessionValueSerializer.super.deserializeBuffer(bytes);
+        }
+        return read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+
+    private Object read(final byte[] bytes, final int offset, final int length) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset + 1, length - 1))) {
+            return readValue(in);
+        } catch (final IOException | ReflectiveOperationException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    // the other values are fully Java serialized to avoid a nested Java serialization stream
+    private boolean isCompact(final Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Integer
+                || value instanceof Long || value instanceof Double) {
+            return true;
+        }
+        final Class<?> clazz = value.getClass();
+        return clazz == Date.class || isJavaUtilList(clazz) || clazz == HashSet.class || clazz == LinkedHashSet.class
+                || clazz == HashMap.class || clazz == LinkedHashMap.class || isCompactProfile(clazz);
+    }
+
+    private static boolean isJavaUtilList(final Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) && clazz.getName().startsWith("java.util.");
+    }
+
+    protected boolean isCompactProfile(final Class<?> clazz) {
+        if (!BasicUserProfile.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        return compactProfileClasses.computeIfAbsent(clazz, c -> {
+            try {
+                if (!Modifier.isPublic(c.getConstructor().getModifiers())) {
+                    return false;
+                }
+            } catch (final NoSuchMethodException e) {
+                return false;
+            }
+            for (Class<?> current = c; current != BasicUserProfile.class; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+    }
+
+    private void writeValue(final DataOutputStream out, final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else {
+            final Class<?> clazz = value.getClass();
+            if (clazz == Date.class) {
+                out.writeByte(DATE);
+                out.writeLong(((Date) value).getTime());
+            } else if (isJavaUtilList(clazz)) {
+                out.writeByte(ARRAY_LIST);
+                writeCollection(out, (Collection<?>) value);
+            } else if (clazz == HashSet.class) {
+                out.writeByte(HASH_SET);
+                writeCollection(out, (Collection<?>) value);
+            } else if (clazz == LinkedHashSet.class) {
+                out.writeByte(LINKED_HASH_SET);
+                writeCollection(out, (Collection<?>) value);
+            } else if (clazz == HashMap.class) {
+                out.writeByte(HASH_MAP);
+                writeMap(out, (Map<?, ?>) value);
+            } else if (clazz == LinkedHashMap.class) {
+                out.writeByte(LINKED_HASH_MAP);
+                writeMap(out, (Map<?, ?>) value);
+            } else if (isCompactProfile(clazz)) {
+                out.writeByte(PROFILE);
+                writeProfile(out, (BasicUserProfile) value);
+            } else {
+                out.writeByte(JAVA);
+                final byte[] bytes = fallback.serialize(value);
+                if (bytes == null) {
+                    throw new IOException("Cannot serialize: " + clazz.getName());
+                }
+                writeLength(out, bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private void writeProfile(final DataOutputStream out, final BasicUserProfile profile) throws IOException {
+        writeString(out, profile.getClass().getName());
+        writeValue(out, profile.getId());
+        writeValue(out, profile.getClientName());
+        writeValue(out, profile.getLinkedId());
+        out.writeBoolean(profile.isRemembered());
+        writeCollection(out, profile.getRoles());
+        writeCollection(out, profile.getPermissions());
+        writeMap(out, profile.getAttributes());
+        writeMap(out, profile.getAuthenticationAttributes());
+    }
+
+    private void writeCollection(final DataOutputStream out, final Collection<?> collection) throws IOException {
+        writeLength(out, collection.size());
+        for (final Object element : collection) {
+            writeValue(out, element);
+        }
+    }
+
+    private void writeMap(final DataOutputStream out, final Map<?, ?> map) throws IOException {
+        writeLength(out, map.size());
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeLength(out, bytes.length);
+        out.write(bytes);
+    }
+
+    // variable-length quantity: 7 bits per byte
+    private static void writeLength(final DataOutputStream out, final int length) throws IOException {
+        int remaining = length;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    private Object readValue(final DataInputStream in) throws IOException, ReflectiveOperationException {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case DATE:
+                return new Date(in.readLong());
+            case ARRAY_LIST:
+                return readCollection(in, new ArrayList<>());
+            case HASH_SET:
+                return readCollection(in, new HashSet<>());
+            case LINKED_HASH_SET:
+                return readCollection(in, new LinkedHashSet<>());
+            case HASH_MAP:
+                return readMap(in, new HashMap<>());
+            case LINKED_HASH_MAP:
+                return readMap(in, new LinkedHashMap<>());
+            case PROFILE:
+                return readProfile(in);
+            case JAVA:
+                final byte[] bytes = new byte[readLength(in)];
+                in.readFully(bytes);
+                return fallback.deserialize(bytes);
+            default:
+                throw new TechnicalException("Unknown value type: " + type);
+        }
+    }
+
+    private BasicUserProfile readProfile(final DataInputStream in) throws IOException, ReflectiveOperationException {
+        final String className = readString(in);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = CompactSessionValueSerializer.class.getClassLoader();
+        }
+        // the class is checked before being initialized
+        final Class<?> clazz = Class.forName(className, false, classLoader);
+        if (!isCompactProfile(clazz)) {
+            throw new TechnicalException("Not a compact profile class: " + className);
+        }
+        final BasicUserProfile profile = (BasicUserProfile) clazz.getConstructor().newInstance();
+        final String id = (String) readValue(in);
+        if (id != null) {
+            profile.setId(id);
+        }
+        profile.setClientName((String) readValue(in));
+        profile.setLinkedId((String) readValue(in));
+        profile.setRemembered(in.readBoolean());
+        profile.addRoles(readStrings(in));
+        profile.addPermissions(readStrings(in));
+        int nbAttributes = readLength(in);
+        for (int i = 0; i < nbAttributes; i++) {
+            profile.addAttribute((String) readValue(in), readValue(in));
+        }
+        nbAttributes = readLength(in);
+        for (int i = 0; i < nbAttributes; i++) {
+            profile.addAuthenticationAttribute((String) readValue(in), readValue(in));
+        }
+        return profile;
+    }
+
+    private List<String> readStrings(final DataInputStream in) throws IOException, ReflectiveOperationException {
+        final int size = readLength(in);
+        final List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add((String) readValue(in));
+        }
+        return strings;
+    }
+
+    private Collection<Object> readCollection(final DataInputStream in, final Collection<Object> collection)
+            throws IOException, ReflectiveOperationException {
+        final int size = readLength(in);
+        for (int i = 0; i < size; i++) {
+            collection.add(readValue(in));
+        }
+        return collection;
+    }
+
+    private Map<Object, Object> readMap(final DataInputStream in, final Map<Object, Object> map)
+            throws IOException, ReflectiveOperationException {
+        final int size = readLength(in);
+        for (int i = 0; i < size; i++) {
+            map.put(readValue(in), readValue(in));
+        }
+        return map;
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // each element takes at least one byte: a larger length is invalid
+    private static int readLength(final DataInputStream in) throws IOException {
+        int length = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (length < 0 || length > in.available()) {
+                    throw new TechnicalException("Invalid length: " + length);
+                }
+                return length;
+            }
+        }
+        throw new TechnicalException("Invalid length");
+    }
+
+    public JavaSessionValueSerializer getFallback() {
+        return fallback;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "fallback", fallback);
+    }
+}
@@ -1,8 +1,13 @@
 package org.pac4j.play.store;
 
+import java.nio.ByteBuffer;
+
 /**
  * A wrapper with encryption/decryption functions, used in session cookie generation in `PlayCookieSessionStore`.
  *
+ * The {@link ByteBuffer} variants let the session cookie pipeline pass its reused buffers without copying them: they
+ * default to the byte array functions, the implementations override them to work on the buffers directly.
+ *
  * @author Vidmantas Zemleris
  * @since 6.1.0
  */
@@ -23,4 +28,40 @@ public interface DataEncrypter {
      * @return encrypted bytes
      */
     byte[] encrypt(byte[] rawBytes);
+
+    /**
+     * Decrypt the remaining bytes of a buffer, without changing its position. The returned buffer may share the content
+     * of the given buffer or of a buffer reused by the current thread: it must be consumed before the next call.
+     *
+     * @param encrypted the encrypted bytes
+     * @return the decrypted bytes
+     * @since 10.0.1
+     */
+    default ByteBuffer decryptBuffer(final ByteBuffer encrypted) {
+        if (encrypted == null) {
+            return null;
+        }
+        final byte[] bytes = new byte[encrypted.remaining()];
+        encrypted.duplicate().get(bytes);
+        final byte[] decrypted = decrypt(bytes);
+        return decrypted != null ? ByteBuffer.wrap(decrypted) : null;
+    }
+
+    /**
+     * Encrypt the remaining bytes of a buffer, without changing its position. The returned buffer may share the content
+     * of the given buffer or of a buffer reused by the current thread: it must be consumed before the next call.
+     *
+     * @param raw the raw bytes
+     * @return the encrypted bytes
+     * @since 10.0.1
+     */
+    default ByteBuffer encryptBuffer(final ByteBuffer raw) {
+        if (raw == null) {
+            return null;
+        }
+        final byte[] bytes = new byte[raw.remaining()];
+        raw.duplicate().get(bytes);
+        final byte[] encrypted = encrypt(bytes);
+        return encrypted != null ? ByteBuffer.wrap(encrypted) : null;
+    }
 }
@@ -0,0 +1,55 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.util.JavaSerializationHelper;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The default key encoder: the <code>String</code> keys are used as is, the numbers, booleans, characters, enums and
+ * UUIDs are written as text after a short type tag (<code>#I:</code>, <code>#L:</code>...) and the other keys are Java
+ * serialized in base64.
+ *
+ * The <code>String</code> keys, like the ones of the pac4j SAML and OIDC logout stores, are the same as in the previous
+ * versions: their entries remain readable during a rolling deployment on a shared cache. Only the cache keys of the
+ * tagged keys differ from the previous versions, which Java serialized them. A tagged key is the same as a
+ * <code>String</code> key of the same text: a store should not mix <code>String</code> keys starting with a type tag and
+ * keys of these types.
+ *
+ * @since 10.0.1
+ */
+public class DefaultCacheKeyEncoder implements CacheKeyEncoder {
+
+    private static final JavaSerializationHelper JAVA_SERIALIZATION_HELPER = new JavaSerializationHelper();
+
+    @Override
+    public String encode(final Object key) {
+        if (key instanceof String) {
+            return (String) key;
+        } else if (key instanceof Integer) {
+            return "#I:" + key;
+        } else if (key instanceof Long) {
+            return "#L:" + key;
+        } else if (key instanceof Short) {
+            return "#S:" + key;
+        } else if (key instanceof Byte) {
+            return "#B:" + key;
+        } else if (key instanceof Boolean) {
+            return "#Z:" + key;
+        } else if (key instanceof Character) {
+            return "#C:" + key;
+        } else if (key instanceof UUID) {
+            return "#U:" + key;
+        } else if (key instanceof Enum) {
+            final Enum<?> e = (Enum<?>) key;
+            return "#E:" + e.getDeclaringClass().getName() + "." + e.name();
+        } else {
+            return JAVA_SERIALIZATION_HELPER.serializeToBase64((Serializable) key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
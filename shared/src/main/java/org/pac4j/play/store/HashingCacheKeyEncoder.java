@@ -0,0 +1,66 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Bounds the size of the keys in the cache: the keys encoded by the delegate encoder which are longer than the
+ * maximum length are replaced by their SHA-256 hash (<code>"#H:"</code> followed by 43 base64url characters).
+ *
+ * @since 10.0.1
+ */
+public class HashingCacheKeyEncoder implements CacheKeyEncoder {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    });
+
+    private final CacheKeyEncoder delegate;
+
+    private final int maxLength;
+
+    public HashingCacheKeyEncoder() {
+        this(new DefaultCacheKeyEncoder(), 64);
+    }
+
+    public HashingCacheKeyEncoder(final CacheKeyEncoder delegate, final int maxLength) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertTrue(maxLength >= 0, "maxLength cannot be negative");
+        this.delegate = delegate;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String encode(final Object key) {
+        final String encodedKey = delegate.encode(key);
+        if (encodedKey.length() <= maxLength) {
+            return encodedKey;
+        }
+        final MessageDigest digest = SHA256.get();
+        digest.reset();
+        final byte[] hash = digest.digest(encodedKey.getBytes(StandardCharsets.UTF_8));
+        return "#H:" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    public CacheKeyEncoder getDelegate() {
+        return delegate;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "delegate", delegate, "maxLength", maxLength);
+    }
+}
@@ -0,0 +1,48 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.JavaSerializationHelper;
+
+import java.io.Serializable;
+
+/**
+ * The Java serialization of the values, restricted to the trusted packages and classes of the
+ * {@link JavaSerializationHelper}.
+ *
+ * @since 10.0.1
+ */
+public class JavaSessionValueSerializer implements SessionValueSerializer {
+
+    private final JavaSerializationHelper helper;
+
+    public JavaSessionValueSerializer() {
+        this(new JavaSerializationHelper());
+    }
+
+    public JavaSessionValueSerializer(final JavaSerializationHelper helper) {
+        CommonHelper.assertNotNull("helper", helper);
+        this.helper = helper;
+    }
+
+    @Override
+    public byte[] serialize(final Object value) {
+        if (value != null && !(value instanceof Serializable)) {
+            return null;
+        }
+        return helper.serializeToBytes((Serializable) value);
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) {
+        return helper.deserializeFromBytes(bytes);
+    }
+
+    public JavaSerializationHelper getHelper() {
+        return helper;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "helper", helper);
+    }
+}
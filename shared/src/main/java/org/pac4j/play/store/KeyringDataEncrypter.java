@@ -0,0 +1,177 @@
+package org.pac4j.play.store;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValue;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A DataEncrypter with several keys: the data is encrypted with the active key and prefixed by its one byte key id, so
+ * that it can be decrypted with any key of the keyring. Sharing the keyring between the nodes and keeping the previous
+ * keys after a rotation keeps the existing cookie sessions valid across restarts, scale-outs and key rotations.
+ *
+ * The keys are typically loaded from the configuration ({@link #fromConfig(Config)}), which the injected
+ * {@link PlayCookieSessionStore} does when the {@link #DEFAULT_CONFIG_PATH} is defined:
+ * <pre>
+ * pac4j.cookie.keyring {
+ *   active = 2
+ *   keys {
+ *     1 = "base64 encoded AES key"
+ *     2 = "base64 encoded AES key"
+ *   }
+ * }
+ * </pre>
+ *
+ * @since 10.0.1
+ */
+public class KeyringDataEncrypter implements DataEncrypter {
+
+    public static final String DEFAULT_CONFIG_PATH = "pac4j.cookie.keyring";
+
+    private final DataEncrypter[] encrypters = new DataEncrypter[256];
+
+    private final int activeKeyId;
+
+    private DataEncrypter legacyEncrypter;
+
+    /**
+     * Build a keyring.
+     *
+     * @param encrypters the encrypters by key id (from 0 to 255)
+     * @param activeKeyId the id of the key used to encrypt
+     */
+    public KeyringDataEncrypter(final Map<Integer, ? extends DataEncrypter> encrypters, final int activeKeyId) {
+        CommonHelper.assertNotNull("encrypters", encrypters);
+        encrypters.forEach((keyId, encrypter) -> {
+            CommonHelper.assertTrue(keyId >= 0 && keyId <= 255, "key id must be between 0 and 255: " + keyId);
+            CommonHelper.assertNotNull("encrypter", encrypter);
+            this.encrypters[keyId] = encrypter;
+        });
+        CommonHelper.assertTrue(encrypters.containsKey(activeKeyId), "the active key id must be in the keyring: " + activeKeyId);
+        this.activeKeyId = activeKeyId;
+    }
+
+    /**
+     * Build a keyring of {@link AesGcmDataEncrypter}.
+     *
+     * @param keys the AES keys by key id (from 0 to 255)
+     * @param activeKeyId the id of the key used to encrypt
+     * @return the keyring
+     */
+    public static KeyringDataEncrypter ofKeys(final Map<Integer, byte[]> keys, final int activeKeyId) {
+        CommonHelper.assertNotNull("keys", keys);
+        final Map<Integer, DataEncrypter> encrypters = new HashMap<>();
+        keys.forEach((keyId, key) -> encrypters.put(keyId, new AesGcmDataEncrypter(key)));
+        return new KeyringDataEncrypter(encrypters, activeKeyId);
+    }
+
+    public static KeyringDataEncrypter fromConfig(final Config config) {
+        return fromConfig(config, DEFAULT_CONFIG_PATH);
+    }
+
+    /**
+     * Load the keyring from the configuration: the <code>active</code> key id and the base64 encoded AES <code>keys</code>
+     * by key id.
+     *
+     * @param config the configuration
+     * @param path the path of the keyring in the configuration
+     * @return the keyring
+     */
+    public static KeyringDataEncrypter fromConfig(final Config config, final String path) {
+        CommonHelper.assertNotNull("config", config);
+        final Config keyring = config.getConfig(path);
+        final Map<Integer, byte[]> keys = new HashMap<>();
+        for (final Map.Entry<String, ConfigValue> entry : keyring.getConfig("keys").root().entrySet()) {
+            try {
+                keys.put(Integer.parseInt(entry.getKey()), Base64.getDecoder().decode(entry.getValue().unwrapped().toString()));
+            } catch (final IllegalArgumentException e) {
+                throw new TechnicalException("Invalid key in " + path + ": " + entry.getKey(), e);
+            }
+        }
+        return ofKeys(keys, keyring.getInt("active"));
+    }
+
+    @Override
+    public byte[] decrypt(final byte[] encryptedBytes) {
+        if (encryptedBytes == null) {
+            return null;
+        }
+        final ByteBuffer decrypted = decryptBuffer(ByteBuffer.wrap(encryptedBytes));
+        if (decrypted == null) {
+            return null;
+        }
+        final byte[] bytes = new byte[decrypted.remaining()];
+        decrypted.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public ByteBuffer decryptBuffer(final ByteBuffer encrypted) {
+        if (encrypted == null) {
+            return null;
+        }
+        final DataEncrypter encrypter = encrypted.hasRemaining() ? encrypters[encrypted.get(encrypted.position()) & 0xFF] : null;
+        if (encrypter == null) {
+            if (legacyEncrypter != null) {
+                return legacyEncrypter.decryptBuffer(encrypted);
+            }
+            throw new TechnicalException("Unknown key id");
+        }
+        // the data after the key id is decrypted in place, without copy
+        final ByteBuffer data = encrypted.duplicate();
+        // Buffer.position(int): ByteBuffer.position(int) only exists since Java 9
+        ((Buffer) data).position(data.position() + 1);
+        try {
+            return encrypter.decryptBuffer(data.slice());
+        } catch (final RuntimeException e) {
+            // the first byte of the legacy data may match a key id by chance
+            if (legacyEncrypter != null) {
+                return legacyEncrypter.decryptBuffer(encrypted);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public byte[] encrypt(final byte[] rawBytes) {
+        if (rawBytes == null) {
+            return null;
+        }
+        return encryptBuffer(ByteBuffer.wrap(rawBytes)).array();
+    }
+
+    @Override
+    public ByteBuffer encryptBuffer(final ByteBuffer raw) {
+        if (raw == null) {
+            return null;
+        }
+        final ByteBuffer encrypted = encrypters[activeKeyId].encryptBuffer(raw);
+        final byte[] result = new byte[encrypted.remaining() + 1];
+        result[0] = (byte) activeKeyId;
+        encrypted.duplicate().get(result, 1, result.length - 1);
+        return ByteBuffer.wrap(result);
+    }
+
+    public int getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public DataEncrypter getLegacyEncrypter() {
+        return legacyEncrypter;
+    }
+
+    /**
+     * Define the encrypter of the data written before the keyring (without key id), to migrate the existing cookies.
+     *
+     * @param legacyEncrypter the legacy encrypter
+     */
+    public void setLegacyEncrypter(final DataEncrypter legacyEncrypter) {
+        this.legacyEncrypter = legacyEncrypter;
+    }
+}
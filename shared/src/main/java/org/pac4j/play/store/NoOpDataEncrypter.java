@@ -1,5 +1,7 @@
 package org.pac4j.play.store;
 
+import java.nio.ByteBuffer;
+
 /**
  * A dummy DataEncrypter with no op functions. Used, for example, to generate unencrypted session cookie in `PlayCookieStore`.
  *
@@ -16,4 +18,14 @@ public class NoOpDataEncrypter implements DataEncrypter {
     public byte[] encrypt(byte[] rawBytes) {
         return rawBytes;
     }
+
+    @Override
+    public ByteBuffer decryptBuffer(final ByteBuffer encrypted) {
+        return encrypted != null ? encrypted.duplicate() : null;
+    }
+
+    @Override
+    public ByteBuffer encryptBuffer(final ByteBuffer raw) {
+        return raw != null ? raw.duplicate() : null;
+    }
 }
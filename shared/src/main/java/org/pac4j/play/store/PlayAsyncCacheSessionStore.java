@@ -0,0 +1,158 @@
+package org.pac4j.play.store;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.google.inject.Provider;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.play.PlayWebContext;
+import play.cache.AsyncCacheApi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * This session store uses the asynchronous Play Cache through the {@link PlayAsyncCacheStore}: the session values are
+ * prefetched before the pac4j logic runs and the writes complete with the returned result, so that no request thread
+ * waits for the cache. A new session starts with empty values without reading the cache. The web contexts of an existing
+ * session which are not prefetched fall back to a blocking read.
+ *
+ * Like for the {@link PlayCacheSessionStore}, each write reads the session values again and only applies the keys
+ * changed by the web context.
+ *
+ * @since 10.0.1
+ */
+@Singleton
+public class PlayAsyncCacheSessionStore extends AbstractPlayCacheSessionStore {
+
+    protected PlayAsyncCacheStore<String, Map<String, Object>> asyncStore;
+
+    @Inject
+    public PlayAsyncCacheSessionStore(final AsyncCacheApi cache) {
+        this.asyncStore = new PlayAsyncCacheStore<>(cache);
+        setDefaultTimeout();
+    }
+
+    public PlayAsyncCacheSessionStore(final Provider<AsyncCacheApi> cacheProvider) {
+        this.asyncStore = new PlayAsyncCacheStore<>(cacheProvider);
+        setDefaultTimeout();
+    }
+
+    @Override
+    public CompletionStage<Void> prefetch(final PlayWebContext context) {
+        // no session is created for a request without one: its values are empty anyway
+        final String sessionId = getSessionIdFromSessionOrRequest(context);
+        final SessionSnapshot snapshot = context.getSessionSnapshot();
+        if (sessionId == null || snapshot != null && sessionId.equals(snapshot.getSessionId())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return asyncStore.get(getPrefixedSessionKey(sessionId))
+                .thenAccept(values -> context.setSessionSnapshot(newSnapshot(sessionId, values)));
+    }
+
+    @Override
+    protected void sessionIdCreated(final PlayWebContext context, final String sessionId) {
+        context.setSessionSnapshot(new AsyncSessionSnapshot(sessionId, new HashMap<>(), CompletableFuture.completedFuture(null)));
+    }
+
+    @Override
+    protected SessionSnapshot getSnapshot(final PlayWebContext context, final String sessionId) {
+        SessionSnapshot snapshot = context.getSessionSnapshot();
+        if (snapshot == null || !sessionId.equals(snapshot.getSessionId())) {
+            logger.debug("session values not prefetched for: {} -> blocking read, call prefetch before using the web context",
+                    sessionId);
+            snapshot = newSnapshot(sessionId, asyncStore.get(getPrefixedSessionKey(sessionId)).toCompletableFuture().join());
+            context.setSessionSnapshot(snapshot);
+        }
+        return snapshot;
+    }
+
+    private static AsyncSessionSnapshot newSnapshot(final String sessionId, final Optional<Map<String, Object>> values) {
+        // copied: an in-memory cache returns its own instance, which must only change through the writes
+        return new AsyncSessionSnapshot(sessionId, values != null && values.isPresent() ? new HashMap<>(values.get()) : new HashMap<>(),
+                CompletableFuture.completedFuture(null));
+    }
+
+    @Override
+    protected void writeSnapshot(final SessionSnapshot snapshot) {
+        final AsyncSessionSnapshot asyncSnapshot = (AsyncSessionSnapshot) snapshot;
+        final String key = getPrefixedSessionKey(snapshot.getSessionId());
+        // the changed values are copied as they may change before the write is performed
+        final Map<String, Object> dirtyValues = snapshot.getDirtyValues();
+        // the writes of a web context are chained to keep their order, each one reads the session values again so that
+        // the changes of a concurrent request on the same session are kept
+        asyncSnapshot.pendingWrites = asyncSnapshot.pendingWrites
+                .thenCompose(v -> asyncStore.get(key))
+                .thenCompose(stored -> asyncStore.set(key,
+                        SessionSnapshot.merge(stored != null && stored.isPresent() ? stored.get() : null, dirtyValues)));
+        snapshot.clearDirtyKeys();
+    }
+
+    @Override
+    public CompletionStage<Void> flushAsync(final PlayWebContext context) {
+        flush(context);
+        final SessionSnapshot snapshot = context.getSessionSnapshot();
+        if (snapshot instanceof AsyncSessionSnapshot) {
+            return ((AsyncSessionSnapshot) snapshot).pendingWrites;
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean renewSession(final PlayWebContext context) {
+        final String oldSessionId = this.getOrCreateSessionId(context);
+        final AsyncSessionSnapshot oldSnapshot = (AsyncSessionSnapshot) getSnapshot(context, oldSessionId);
+
+        context.setNativeSession(context.getNativeSession().removing(Pac4jConstants.SESSION_ID));
+        context.setRequestAttribute(Pac4jConstants.SESSION_ID, null);
+
+        final String newSessionId = this.getOrCreateSessionId(context);
+        final Map<String, Object> values = oldSnapshot.getValues();
+        final AsyncSessionSnapshot newSnapshot = new AsyncSessionSnapshot(newSessionId, values, oldSnapshot.pendingWrites);
+        context.setSessionSnapshot(newSnapshot);
+        if (!values.isEmpty()) {
+            // the new session has no stored value: all the values are written
+            final String key = getPrefixedSessionKey(newSessionId);
+            final Map<String, Object> copy = new HashMap<>(values);
+            newSnapshot.pendingWrites = newSnapshot.pendingWrites.thenCompose(v -> asyncStore.set(key, copy));
+        }
+
+        logger.debug("Renewing session: {} -> {}", oldSessionId, newSessionId);
+        return true;
+    }
+
+    @Override
+    public int getTimeout() {
+        return this.asyncStore.getTimeout();
+    }
+
+    @Override
+    public void setTimeout(final int timeout) {
+        this.asyncStore.setTimeout(timeout);
+    }
+
+    public PlayAsyncCacheStore<String, Map<String, Object>> getAsyncStore() {
+        return asyncStore;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "asyncStore", asyncStore, "prefix", getPrefix(), "timeout", getTimeout(),
+                "bufferedWrites", isBufferedWrites());
+    }
+
+    private static final class AsyncSessionSnapshot extends SessionSnapshot {
+
+        private CompletionStage<Void> pendingWrites;
+
+        private AsyncSessionSnapshot(final String sessionId, final Map<String, Object> values,
+                                     final CompletionStage<Void> pendingWrites) {
+            super(sessionId, values);
+            this.pendingWrites = pendingWrites;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.pac4j.play.store;
+
+import javax.inject.Inject;
+
+import com.google.inject.Provider;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import play.cache.AsyncCacheApi;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking store using the asynchronous Play Cache.
+ *
+ * @since 10.0.1
+ */
+public class PlayAsyncCacheStore<K, O> {
+
+    private final AsyncCacheApi cache;
+    private final Provider<AsyncCacheApi> cacheProvider;
+    private int timeout;
+    private CacheKeyEncoder keyEncoder = new DefaultCacheKeyEncoder();
+    private SessionValueSerializer serializer;
+
+    @Inject
+    public PlayAsyncCacheStore(final AsyncCacheApi cacheApi) {
+        CommonHelper.assertNotNull("cacheApi", cacheApi);
+        this.cacheProvider = null;
+        this.cache = cacheApi;
+    }
+
+    public PlayAsyncCacheStore(final Provider<AsyncCacheApi> cacheProvider) {
+        if (cacheProvider == null) {
+            throw new TechnicalException("The cache and the cacheProvider must not both be null");
+        }
+        this.cache = null;
+        this.cacheProvider = cacheProvider;
+    }
+
+    @SuppressWarnings("unchecked")
+    public CompletionStage<Optional<O>> get(final K key) {
+        if (serializer != null) {
+            final CompletionStage<Optional<byte[]>> bytes = getCache().get(computeKey(key));
+            return bytes.thenApply(b -> b.map(value -> (O) serializer.deserialize(value)));
+        }
+        return getCache().get(computeKey(key));
+    }
+
+    public CompletionStage<Void> set(final K key, final O value) {
+        if (value == null) {
+            return remove(key);
+        }
+        return getCache().set(computeKey(key), serializer != null ? serializer.serialize(value) : value, this.timeout).thenApply(done -> null);
+    }
+
+    public CompletionStage<Void> remove(final K key) {
+        return getCache().remove(computeKey(key)).thenApply(done -> null);
+    }
+
+    protected String computeKey(final Object objKey) {
+        return keyEncoder.encode(objKey);
+    }
+
+    public AsyncCacheApi getCache() {
+        return cache != null ? cache : cacheProvider.get();
+    }
+
+    public CacheKeyEncoder getKeyEncoder() {
+        return keyEncoder;
+    }
+
+    /**
+     * Define how the keys are encoded in the cache, for example with a {@link HashingCacheKeyEncoder} to bound their size.
+     *
+     * @param keyEncoder the key encoder
+     */
+    public void setKeyEncoder(final CacheKeyEncoder keyEncoder) {
+        CommonHelper.assertNotNull("keyEncoder", keyEncoder);
+        this.keyEncoder = keyEncoder;
+    }
+
+    public SessionValueSerializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * Define a serializer to save the values as bytes in the cache, for a remote cache. By default, the values are given
+     * as is to the cache.
+     *
+     * @param serializer the serializer, <code>null</code> to save the values as is
+     */
+    public void setSerializer(final SessionValueSerializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        CommonHelper.assertTrue(timeout >= 0, "timeout must be greater than zero");
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "cache", getCache(), "timeout", timeout, "keyEncoder", keyEncoder,
+                "serializer", serializer);
+    }
+}
@@ -0,0 +1,190 @@
+package org.pac4j.play.store;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.google.inject.Provider;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.play.PlayWebContext;
+import play.cache.SyncCacheApi;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This session store saves each session value in its own cache entry (<code>prefix + sessionId + ":" + key</code>)
+ * instead of a single map for the whole session: a read only fetches the requested value and the writes of different
+ * keys do not overwrite each other. The keys of the session are listed in an index entry
+ * (<code>prefix + sessionId</code>), used to renew the session.
+ *
+ * The index is loaded once per web context, by its first write, and saved again only when keys are added or removed.
+ * It is best-effort: the cache has no atomic update, so two concurrent writes of the same session may lose a key of the
+ * index. When saved, the index is reloaded and completed with all the keys known by the web context, and the session
+ * renewal carries over the values read by the web context in addition to the indexed ones.
+ *
+ * Each entry expires after the timeout following its own last access: the first read of an entry by a web context writes
+ * it again to renew its expiration, so a value which is only read does not expire while the session is used. The index
+ * expires after the timeout following the last change of the keys: when it has expired, the next change of the keys
+ * saves it again with the keys known by the web context.
+ *
+ * @since 10.0.1
+ */
+@Singleton
+public class PlayCachePerKeySessionStore extends PlayCacheSessionStore {
+
+    protected PlayCacheStore<String, Object> entries;
+
+    @Inject
+    public PlayCachePerKeySessionStore(final SyncCacheApi cache) {
+        this.store = new PlayCacheStore<>(cache);
+        this.entries = new PlayCacheStore<>(cache);
+        setDefaultTimeout();
+    }
+
+    public PlayCachePerKeySessionStore(final Provider<SyncCacheApi> cacheProvider) {
+        this.store = new PlayCacheStore<>(cacheProvider);
+        this.entries = new PlayCacheStore<>(cacheProvider);
+        setDefaultTimeout();
+    }
+
+    String getEntryKey(final String sessionId, final String key) {
+        return getPrefixedSessionKey(sessionId) + ":" + key;
+    }
+
+    @Override
+    public Optional<Object> get(final PlayWebContext context, final String key) {
+        final String sessionId = getOrCreateSessionId(context);
+        final Map<String, Object> values = getSnapshot(context, sessionId).getValues();
+        if (!values.containsKey(key)) {
+            final String entryKey = getEntryKey(sessionId, key);
+            final Optional<Object> value = entries.get(entryKey);
+            if (value != null && value.isPresent()) {
+                // renew the expiration of the entry
+                entries.set(entryKey, value.get());
+                values.put(key, value.get());
+            } else {
+                values.put(key, null);
+            }
+        }
+        final Object value = values.get(key);
+        logger.trace("get, sessionId = {}, key = {} -> {}", sessionId, key, value);
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * The snapshot starts empty: the values are fetched one by one on demand.
+     */
+    @Override
+    protected SessionSnapshot getSnapshot(final PlayWebContext context, final String sessionId) {
+        SessionSnapshot snapshot = context.getSessionSnapshot();
+        if (snapshot == null || !sessionId.equals(snapshot.getSessionId())) {
+            snapshot = new PerKeySessionSnapshot(sessionId, null);
+            context.setSessionSnapshot(snapshot);
+        }
+        return snapshot;
+    }
+
+    @Override
+    protected void writeSnapshot(final SessionSnapshot snapshot) {
+        final PerKeySessionSnapshot perKeySnapshot = (PerKeySessionSnapshot) snapshot;
+        final String sessionId = snapshot.getSessionId();
+        final Set<String> index = getIndex(perKeySnapshot);
+        final Set<String> removedKeys = new HashSet<>();
+        boolean indexChanged = false;
+        for (final String key : snapshot.getDirtyKeys()) {
+            final Object value = snapshot.getValues().get(key);
+            if (value == null) {
+                entries.remove(getEntryKey(sessionId, key));
+                removedKeys.add(key);
+                indexChanged |= index.contains(key);
+            } else {
+                entries.set(getEntryKey(sessionId, key), value);
+            }
+        }
+        for (final Map.Entry<String, Object> entry : snapshot.getValues().entrySet()) {
+            indexChanged |= entry.getValue() != null && !index.contains(entry.getKey());
+        }
+        if (indexChanged) {
+            // the keys added by a concurrent write are kept and the keys lost by a concurrent write are restored from
+            // the values known by the web context
+            final Set<String> newIndex = loadIndex(sessionId);
+            snapshot.getValues().forEach((key, value) -> {
+                if (value != null) {
+                    newIndex.add(key);
+                }
+            });
+            newIndex.removeAll(removedKeys);
+            store.set(getPrefixedSessionKey(sessionId), indexToMap(newIndex));
+            perKeySnapshot.index = newIndex;
+        }
+        snapshot.clearDirtyKeys();
+    }
+
+    @Override
+    public boolean renewSession(final PlayWebContext context) {
+        final String oldSessionId = this.getOrCreateSessionId(context);
+        final PerKeySessionSnapshot oldSnapshot = (PerKeySessionSnapshot) getSnapshot(context, oldSessionId);
+        for (final String key : getIndex(oldSnapshot)) {
+            get(context, key);
+        }
+
+        context.setNativeSession(context.getNativeSession().removing(Pac4jConstants.SESSION_ID));
+        context.setRequestAttribute(Pac4jConstants.SESSION_ID, null);
+
+        final String newSessionId = this.getOrCreateSessionId(context);
+        // a new session has no index yet
+        final PerKeySessionSnapshot newSnapshot = new PerKeySessionSnapshot(newSessionId, new HashSet<>());
+        oldSnapshot.getValues().forEach((key, value) -> {
+            if (value != null) {
+                newSnapshot.put(key, value);
+            }
+        });
+        context.setSessionSnapshot(newSnapshot);
+        writeSnapshot(newSnapshot);
+
+        logger.debug("Renewing session: {} -> {}", oldSessionId, newSessionId);
+        return true;
+    }
+
+    // the index of the snapshot, loaded by the first access
+    private Set<String> getIndex(final PerKeySessionSnapshot snapshot) {
+        if (snapshot.index == null) {
+            snapshot.index = loadIndex(snapshot.getSessionId());
+        }
+        return snapshot.index;
+    }
+
+    // the index is saved in the map format of the parent store: key -> Boolean.TRUE
+    protected Set<String> loadIndex(final String sessionId) {
+        final Optional<Map<String, Object>> index = store.get(getPrefixedSessionKey(sessionId));
+        if (index != null && index.isPresent()) {
+            return new HashSet<>(index.get().keySet());
+        }
+        return new HashSet<>();
+    }
+
+    private static Map<String, Object> indexToMap(final Set<String> index) {
+        final Map<String, Object> map = new HashMap<>();
+        index.forEach(key -> map.put(key, Boolean.TRUE));
+        return map;
+    }
+
+    @Override
+    public void setTimeout(final int timeout) {
+        super.setTimeout(timeout);
+        this.entries.setTimeout(timeout);
+    }
+
+    private static final class PerKeySessionSnapshot extends SessionSnapshot {
+
+        private Set<String> index;
+
+        private PerKeySessionSnapshot(final String sessionId, final Set<String> index) {
+            super(sessionId, new HashMap<>());
+            this.index = index;
+        }
+    }
+}
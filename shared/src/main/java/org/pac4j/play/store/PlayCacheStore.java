@@ -6,13 +6,21 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.store.AbstractStore;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.JavaSerializationHelper;
+import org.pac4j.play.util.LocalCache;
 import play.cache.SyncCacheApi;
 
-import java.io.Serializable;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Store using the Play Cache.
+ * An optional in-process near cache ({@link #setNearCache(LocalCache)}) serves the repeated reads of the same node: its
+ * entries are dropped on the local writes and through {@link #invalidate(String)} for the writes of the other nodes.
+ * It holds the serialized values, so that each read returns its own copy which the request can modify: the stored values
+ * are mutable (the session maps and the profiles they contain) and the session stores change them in place before
+ * writing them back, a shared deserialized instance would expose these changes to the concurrent requests of the node
+ * and keep them in the near cache even if they are never written. A hit therefore saves the cache round-trip, not the
+ * deserialization.
  *
  * @author Jerome Leleu
  * @since 3.0.0
@@ -24,6 +32,14 @@ public class PlayCacheStore<K, O> extends AbstractStore<K, O> {
     private final SyncCacheApi cache;
     private final Provider<SyncCacheApi> cacheProvider;
     private int timeout;
+    private CacheKeyEncoder keyEncoder = new DefaultCacheKeyEncoder();
+    private SessionValueSerializer serializer;
+
+    private static final SessionValueSerializer DEFAULT_NEAR_CACHE_SERIALIZER = new JavaSessionValueSerializer();
+
+    private LocalCache<String, byte[]> nearCache;
+
+    private Consumer<String> invalidationListener;
 
     @Inject
     public PlayCacheStore(final SyncCacheApi cacheApi) {
@@ -45,13 +61,80 @@ public class PlayCacheStore<K, O> extends AbstractStore<K, O> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
+    public Optional<O> get(final K key) {
+        if (nearCache == null) {
+            return super.get(key);
+        }
+        CommonHelper.assertNotNull("key", key);
+        final String computedKey = computeKey(key);
+        final SessionValueSerializer nearCacheSerializer = serializer != null ? serializer : DEFAULT_NEAR_CACHE_SERIALIZER;
+        final LocalCache.Entry<byte[]> entry = nearCache.getEntry(computedKey);
+        if (entry != null) {
+            final O value = (O) nearCacheSerializer.deserialize(entry.getValue());
+            if (value != null) {
+                return Optional.of(value);
+            }
+            // the copy cannot be read back (untrusted class): the value is read from the cache
+            nearCache.remove(computedKey);
+        }
+        final Optional<O> value = super.get(key);
+        if (value != null && value.isPresent()) {
+            final byte[] bytes = nearCacheSerializer.serialize(value.get());
+            // a value which cannot be serialized is not kept in the near cache
+            if (bytes != null) {
+                nearCache.put(computedKey, bytes);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void set(final K key, final O value) {
+        super.set(key, value);
+        afterLocalWrite(key);
+    }
+
+    @Override
+    public void remove(final K key) {
+        super.remove(key);
+        afterLocalWrite(key);
+    }
+
+    private void afterLocalWrite(final K key) {
+        if (nearCache != null || invalidationListener != null) {
+            final String computedKey = computeKey(key);
+            invalidate(computedKey);
+            if (invalidationListener != null) {
+                invalidationListener.accept(computedKey);
+            }
+        }
+    }
+
+    /**
+     * Drop an entry from the near cache, typically when another node has written it.
+     *
+     * @param computedKey the key in the cache (see {@link #computeKey(Object)})
+     */
+    public void invalidate(final String computedKey) {
+        if (nearCache != null) {
+            nearCache.remove(computedKey);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     protected Optional<O> internalGet(final K key) {
+        if (serializer != null) {
+            final Optional<byte[]> bytes = getCache().getOptional(computeKey(key));
+            return bytes.map(b -> (O) serializer.deserialize(b));
+        }
         return getCache().getOptional(computeKey(key));
     }
 
     @Override
     protected void internalSet(final K key, final O value) {
-        getCache().set(computeKey(key), value, this.timeout);
+        getCache().set(computeKey(key), serializer != null ? serializer.serialize(value) : value, this.timeout);
     }
 
     @Override
@@ -60,17 +143,81 @@ public class PlayCacheStore<K, O> extends AbstractStore<K, O> {
     }
 
     protected String computeKey(final Object objKey) {
-        if (objKey instanceof String) {
-            return (String) objKey;
-        } else {
-            return JAVA_SERIALIZATION_HELPER.serializeToBase64((Serializable) objKey);
-        }
+        return keyEncoder.encode(objKey);
     }
 
     public SyncCacheApi getCache() {
         return cache != null ? cache : cacheProvider.get();
     }
 
+    public LocalCache<String, byte[]> getNearCache() {
+        return nearCache;
+    }
+
+    /**
+     * Define the near cache, whose size and time to live bound the memory used and the staleness of the values written by
+     * the other nodes. The values are kept serialized by the {@link #getSerializer()} (or the Java serialization), and
+     * deserialized on each read: the requests never share the same instances.
+     *
+     * @param nearCache the near cache, <code>null</code> to disable it
+     */
+    public void setNearCache(final LocalCache<String, byte[]> nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public Consumer<String> getInvalidationListener() {
+        return invalidationListener;
+    }
+
+    /**
+     * Define the listener notified with the cache key of each local write, to invalidate it on the other nodes.
+     *
+     * @param invalidationListener the listener
+     */
+    public void setInvalidationListener(final Consumer<String> invalidationListener) {
+        this.invalidationListener = invalidationListener;
+    }
+
+    public long getNearCacheHits() {
+        return nearCache != null ? nearCache.getHits() : 0;
+    }
+
+    public long getNearCacheMisses() {
+        return nearCache != null ? nearCache.getMisses() : 0;
+    }
+
+    public double getNearCacheHitRatio() {
+        return nearCache != null ? nearCache.getHitRatio() : 0.0;
+    }
+
+    public CacheKeyEncoder getKeyEncoder() {
+        return keyEncoder;
+    }
+
+    /**
+     * Define how the keys are encoded in the cache, for example with a {@link HashingCacheKeyEncoder} to bound their size.
+     *
+     * @param keyEncoder the key encoder
+     */
+    public void setKeyEncoder(final CacheKeyEncoder keyEncoder) {
+        CommonHelper.assertNotNull("keyEncoder", keyEncoder);
+        this.keyEncoder = keyEncoder;
+    }
+
+    public SessionValueSerializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * Define a serializer to save the values as bytes in the cache, for a remote cache. By default, the values are given
+     * as is to the cache.
+     *
+     * @param serializer the serializer, <code>null</code> to save the values as is
+     */
+    public void setSerializer(final SessionValueSerializer serializer) {
+        this.serializer = serializer;
+    }
+
     public int getTimeout() {
         return timeout;
     }
@@ -81,6 +228,7 @@ public class PlayCacheStore<K, O> extends AbstractStore<K, O> {
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "cache", getCache(), "timeout", timeout);
+        return CommonHelper.toNiceString(this.getClass(), "cache", getCache(), "timeout", timeout, "keyEncoder", keyEncoder,
+                "serializer", serializer, "nearCache", nearCache);
     }
 }
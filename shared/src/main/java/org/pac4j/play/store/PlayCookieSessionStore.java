@@ -1,24 +1,46 @@
 package org.pac4j.play.store;
 
+import com.typesafe.config.Config;
+import org.pac4j.core.context.Cookie;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.BasicUserProfile;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.JavaSerializationHelper;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.util.LocalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.api.http.HttpConfiguration;
+import play.api.http.SessionConfiguration;
 import play.mvc.Http;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
 /**
  * A PlaySesssionStore which only uses the Play Session cookie for storage, allowing for a stateless backend.
@@ -31,14 +53,70 @@ public class PlayCookieSessionStore implements PlaySessionStore {
 
     private static final Logger logger = LoggerFactory.getLogger(PlayCookieSessionStore.class);
 
+    // the markers of the session values saved elsewhere: they cannot be confused with the Base64 encoded values
+    private static final String CHUNKED = "#chunks:";
+    private static final String OVERFLOW = "#overflow";
+
+    private static final String PENDING_CHUNKS_ATTRIBUTE = "pac4jPendingChunks_";
+
+    // the Play session is a JWT: the JSON of the values and of the claims is Base64url encoded, after a header and
+    // before a signature (both 36 and 43 chars for HS256, separated by dots)
+    private static final int JWT_OVERHEAD = 36 + 1 + 1 + 43;
+    private static final int CLAIMS_OVERHEAD = 80;
+    private static final int ENTRY_OVERHEAD = 6;
+
+    // the native zlib state is reused by each thread instead of being allocated for each value: it is never ended
+    // explicitly, its native memory is released when the thread is gone and the Deflater/Inflater is garbage collected
+    // (the pooled request threads of Play live as long as the application)
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    // each stage of the pipeline writes into a buffer reused by each thread, the next stage reads it without copy
+    private static final ReusableBuffer DECODED_BUFFER = new ReusableBuffer();
+    private static final ReusableBuffer INFLATED_BUFFER = new ReusableBuffer();
+    private static final ReusableBuffer DEFLATED_BUFFER = new ReusableBuffer();
+
     private final String tokenName = "pac4j";
     private final String keyPrefix = "pac4j_";
-    private DataEncrypter dataEncrypter = new ShiroAesDataEncrypter();
+    private DataEncrypter dataEncrypter = new AesGcmDataEncrypter();
+    private DataEncrypter signingEncrypter;
+    private Set<String> signedKeys = Collections.emptySet();
+    private SessionValueSerializer serializer = new CompactSessionValueSerializer();
+    private LocalCache<String, Object> decodedCookies = new LocalCache<>(1000, 10, TimeUnit.MINUTES);
+    private int chunkSize = 2000;
+    private int maxChunks = 1;
+    private int maxValueSize = 0;
+    private int maxSessionCookieSize = 4000;
+    private SessionConfiguration sessionConfiguration = HttpConfiguration.createWithDefaults().session();
+    private List<String> overflowStrippedAttributes = Collections.emptyList();
+    private PlaySessionStore overflowStore;
 
     public static final JavaSerializationHelper JAVA_SER_HELPER = new JavaSerializationHelper();
 
     public PlayCookieSessionStore() {}
 
+    public PlayCookieSessionStore(final HttpConfiguration httpConfiguration) {
+        this.sessionConfiguration = httpConfiguration.session();
+        this.signingEncrypter = HmacDataEncrypter.fromSecret(httpConfiguration.secret().secret());
+    }
+
+    /**
+     * Build the store from the Play configuration: when a keyring is configured (see
+     * {@link KeyringDataEncrypter#DEFAULT_CONFIG_PATH}), the values are encrypted with it, so that all the nodes share
+     * the keys. Otherwise, a random key is generated for the JVM.
+     *
+     * @param httpConfiguration the HTTP configuration
+     * @param config the configuration
+     */
+    @Inject
+    public PlayCookieSessionStore(final HttpConfiguration httpConfiguration, final Config config) {
+        this(httpConfiguration);
+        if (config.hasPath(KeyringDataEncrypter.DEFAULT_CONFIG_PATH)) {
+            this.dataEncrypter = KeyringDataEncrypter.fromConfig(config);
+        }
+    }
+
     public PlayCookieSessionStore(final DataEncrypter dataEncrypter) {
         this.dataEncrypter = dataEncrypter;
     }
@@ -55,14 +133,133 @@ public class PlayCookieSessionStore implements PlaySessionStore {
         if (sessionValue == null) {
             logger.trace("get, key = {} -> null", key);
             return Optional.empty();
+        } else if (OVERFLOW.equals(sessionValue)) {
+            logger.trace("get, key = {} -> overflow store", key);
+            return overflowStore != null ? overflowStore.get(context, key) : Optional.empty();
         } else {
-            byte[] inputBytes = Base64.getDecoder().decode(sessionValue);
-            final Object value = JAVA_SER_HELPER.deserializeFromBytes(uncompressBytes(dataEncrypter.decrypt(inputBytes)));
+            final Object value = decode(context, key, sessionValue);
             logger.trace("get, key = {} -> value = {}", key, value);
             return Optional.ofNullable(value);
         }
     }
 
+    /**
+     * Get the encoded value of a key: the session value itself or the reassembled chunks.
+     *
+     * @param context the web context
+     * @param key the key
+     * @param sessionValue the value in the Play session
+     * @return the encoded value, <code>null</code> if the chunks are missing or do not match their digest
+     */
+    protected String getPayload(final PlayWebContext context, final String key, final String sessionValue) {
+        if (OVERFLOW.equals(sessionValue)) {
+            return null;
+        } else if (!sessionValue.startsWith(CHUNKED)) {
+            return sessionValue;
+        }
+        final String[] parts = sessionValue.split(":");
+        final int nbChunks = Integer.parseInt(parts[1]);
+        final String digest = parts[2];
+        // the chunks written by this request are not yet in the request cookies
+        final Optional<Object> pendingPayload = context.getRequestAttribute(PENDING_CHUNKS_ATTRIBUTE + key);
+        if (pendingPayload.isPresent() && digest.equals(digest((String) pendingPayload.get()))) {
+            return (String) pendingPayload.get();
+        }
+        final StringBuilder payload = new StringBuilder(nbChunks * chunkSize);
+        for (int i = 0; i < nbChunks; i++) {
+            final Optional<Cookie> chunk = context.getRequestCookie(getChunkName(key, i));
+            if (!chunk.isPresent()) {
+                logger.warn("get, key = {} -> missing chunk: {}", key, i);
+                return null;
+            }
+            payload.append(chunk.get().getValue());
+        }
+        final String result = payload.toString();
+        if (!digest.equals(digest(result))) {
+            logger.warn("get, key = {} -> the chunks do not match their digest", key);
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Decode a session value. The decoded values are cached by their exact session value (which holds the digest of
+     * the chunks of a chunked value): the immutable values are returned as is, the others are deserialized again from
+     * the cached bytes so that each caller gets its own copy.
+     *
+     * @param context the web context
+     * @param key the key
+     * @param sessionValue the value in the Play session
+     * @return the decoded value
+     */
+    protected Object decode(final PlayWebContext context, final String key, final String sessionValue) {
+        final LocalCache.Entry<Object> entry = decodedCookies != null ? decodedCookies.getEntry(sessionValue) : null;
+        if (entry != null) {
+            final Object cached = entry.getValue();
+            return cached instanceof byte[] ? serializer.deserialize((byte[]) cached) : cached;
+        }
+        final String payload = getPayload(context, key, sessionValue);
+        if (payload == null) {
+            return null;
+        }
+        final ByteBuffer bytes = decodePayload(key, payload);
+        if (bytes == null) {
+            return null;
+        }
+        final Object value = serializer.deserializeBuffer(bytes);
+        if (decodedCookies != null) {
+            decodedCookies.put(sessionValue, isImmutable(value) ? value : toArray(bytes));
+        }
+        return value;
+    }
+
+    // the serialized bytes of the current cookie value, null if it cannot be decoded
+    private byte[] getSerializedBytes(final PlayWebContext context, final String key, final String sessionValue) {
+        final LocalCache.Entry<Object> entry = decodedCookies != null ? decodedCookies.getEntry(sessionValue) : null;
+        if (entry != null) {
+            final Object cached = entry.getValue();
+            return cached instanceof byte[] ? (byte[]) cached : serializer.serialize(cached);
+        }
+        try {
+            final String payload = getPayload(context, key, sessionValue);
+            if (payload == null) {
+                return null;
+            }
+            final byte[] bytes = toArray(decodePayload(key, payload));
+            if (decodedCookies != null && bytes != null) {
+                decodedCookies.put(sessionValue, bytes);
+            }
+            return bytes;
+        } catch (final RuntimeException e) {
+            logger.debug("Unable to decode the current session cookie", e);
+            return null;
+        }
+    }
+
+    // the payload is Base64 decoded, decrypted and uncompressed: the result is only valid until the next call
+    private ByteBuffer decodePayload(final String key, final String payload) {
+        final byte[] encoded = payload.getBytes(StandardCharsets.ISO_8859_1);
+        final byte[] decoded = DECODED_BUFFER.get(encoded.length / 4 * 3 + 3);
+        final int length = Base64.getDecoder().decode(encoded, decoded);
+        if (signedKeys.contains(key)) {
+            return signingEncrypter.decryptBuffer(ByteBuffer.wrap(decoded, 0, length));
+        }
+        return inflate(dataEncrypter.decryptBuffer(ByteBuffer.wrap(decoded, 0, length)));
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static boolean isImmutable(final Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long;
+    }
+
     @Override
     public void set(final PlayWebContext context, final String key, final Object value) {
         logger.trace("set, key = {}, value = {}", key, value);
@@ -71,14 +268,152 @@ public class PlayCookieSessionStore implements PlaySessionStore {
             clearedValue = clearUserProfiles(value);
         }
 
-        byte[] javaSerBytes = JAVA_SER_HELPER.serializeToBytes((Serializable) clearedValue);
-        String serialized = Base64.getEncoder().encodeToString(dataEncrypter.encrypt(compressBytes(javaSerBytes)));
-        if (serialized != null) {
-            logger.trace("set, key = {} -> serialized token size = {}", key, serialized.length());
+        byte[] serializedBytes = serializer.serialize(clearedValue);
+        final String currentValue = context.getNativeSession().getOptional(keyPrefix + key).orElse(null);
+        if (currentValue != null && Arrays.equals(serializedBytes, getSerializedBytes(context, key, currentValue))) {
+            logger.trace("set, key = {} -> unchanged value", key);
+            return;
+        }
+        String serialized = encode(key, serializedBytes);
+        logger.trace("set, key = {} -> serialized token size = {}", key, serialized.length());
+        final boolean chunking = maxChunks > 1;
+        final int maxSize = getMaxSize();
+        if (serialized.length() > maxSize && !overflowStrippedAttributes.isEmpty()) {
+            serialized = encode(key, serializer.serialize(stripAttributes(serializer.deserialize(serializedBytes))));
+            logger.debug("set, key = {} -> serialized token size without the stripped attributes = {}", key, serialized.length());
+        }
+
+        final String sessionValue;
+        if (!chunking && serialized.length() <= maxSize) {
+            // without chunking, the value is always saved in the Play session, up to the explicit maximum size
+            sessionValue = serialized;
+        } else if (serialized.length() <= chunkSize && serialized.length() <= maxSize
+                && fitsInSessionCookie(context, keyPrefix + key, serialized)) {
+            sessionValue = serialized;
+        } else if (chunking && serialized.length() <= maxSize) {
+            sessionValue = writeChunks(context, key, serialized);
+        } else if (overflowStore != null) {
+            logger.debug("set, key = {} -> saved in the overflow store", key);
+            overflowStore.set(context, key, clearedValue);
+            sessionValue = OVERFLOW;
         } else {
-            logger.trace("set, key = {} -> null serialized token", key);
+            logger.error("set, key = {} -> serialized token size = {} exceeds the maximum size = {}: the value is not saved",
+                    key, serialized.length(), maxSize);
+            sessionValue = null;
+        }
+
+        expireChunks(context, key, getNbChunks(sessionValue), getNbChunks(currentValue));
+        if (OVERFLOW.equals(currentValue) && !OVERFLOW.equals(sessionValue) && overflowStore != null) {
+            overflowStore.set(context, key, null);
+        }
+        final Http.Session session = context.getNativeSession();
+        context.setNativeSession(sessionValue != null ? session.adding(keyPrefix + key, sessionValue)
+                : session.removing(keyPrefix + key));
+    }
+
+    // the size above which a value is stripped, then saved in the overflow store or dropped: the explicit maximum size,
+    // bounded by the size of all the chunks when the chunking is enabled
+    private int getMaxSize() {
+        final int limit = maxValueSize > 0 ? maxValueSize : Integer.MAX_VALUE;
+        return maxChunks > 1 ? Math.min(limit, chunkSize * maxChunks) : limit;
+    }
+
+    /**
+     * Encode the serialized bytes of a value: they are compressed and encrypted, or only signed for the signed keys.
+     *
+     * @param key the key
+     * @param serializedBytes the serialized bytes
+     * @return the encoded value
+     */
+    protected String encode(final String key, final byte[] serializedBytes) {
+        final ByteBuffer protectedBytes = signedKeys.contains(key)
+                ? signingEncrypter.encryptBuffer(ByteBuffer.wrap(serializedBytes))
+                : dataEncrypter.encryptBuffer(deflate(serializedBytes));
+        final ByteBuffer encoded = Base64.getEncoder().encode(protectedBytes);
+        return new String(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining(),
+                StandardCharsets.ISO_8859_1);
+    }
+
+    // whether the Play session cookie, with the other values inline, stays under the maximum size once JWT encoded
+    private boolean fitsInSessionCookie(final PlayWebContext context, final String sessionKey, final String sessionValue) {
+        int jsonLength = CLAIMS_OVERHEAD + sessionKey.length() + sessionValue.length() + ENTRY_OVERHEAD;
+        for (final Map.Entry<String, String> entry : context.getNativeSession().data().entrySet()) {
+            if (!sessionKey.equals(entry.getKey())) {
+                jsonLength += entry.getKey().length() + entry.getValue().length() + ENTRY_OVERHEAD;
+            }
+        }
+        final int cookieSize = sessionConfiguration.cookieName().length() + 1 + JWT_OVERHEAD + (jsonLength * 4 + 2) / 3;
+        return cookieSize <= maxSessionCookieSize;
+    }
+
+    // the chunks are saved in cookies and their digest in the signed Play session, which prevents their tampering
+    private String writeChunks(final PlayWebContext context, final String key, final String payload) {
+        final int nbChunks = (payload.length() + chunkSize - 1) / chunkSize;
+        for (int i = 0; i < nbChunks; i++) {
+            final String chunk = payload.substring(i * chunkSize, Math.min(payload.length(), (i + 1) * chunkSize));
+            context.addNativeResponseCookie(newChunkCookie(getChunkName(key, i), chunk, false));
+        }
+        context.setRequestAttribute(PENDING_CHUNKS_ATTRIBUTE + key, payload);
+        logger.debug("set, key = {} -> {} chunks", key, nbChunks);
+        return CHUNKED + nbChunks + ":" + digest(payload);
+    }
+
+    private void expireChunks(final PlayWebContext context, final String key, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            context.addNativeResponseCookie(newChunkCookie(getChunkName(key, i), "", true));
+        }
+    }
+
+    // the chunk cookies have the attributes of the Play session cookie
+    private Http.Cookie newChunkCookie(final String name, final String value, final boolean expired) {
+        final Http.CookieBuilder builder = Http.Cookie.builder(name, value)
+                .withPath(sessionConfiguration.path())
+                .withSecure(sessionConfiguration.secure())
+                .withHttpOnly(sessionConfiguration.httpOnly());
+        if (sessionConfiguration.domain().isDefined()) {
+            builder.withDomain(sessionConfiguration.domain().get());
+        }
+        if (sessionConfiguration.sameSite().isDefined()) {
+            builder.withSameSite(sessionConfiguration.sameSite().get().asJava());
+        }
+        if (expired) {
+            builder.withMaxAge(Duration.ZERO);
+        } else if (sessionConfiguration.maxAge().isDefined()) {
+            builder.withMaxAge(Duration.ofSeconds(sessionConfiguration.maxAge().get().toSeconds()));
+        }
+        return builder.build();
+    }
+
+    private static int getNbChunks(final String sessionValue) {
+        if (sessionValue != null && sessionValue.startsWith(CHUNKED)) {
+            return Integer.parseInt(sessionValue.substring(CHUNKED.length(), sessionValue.indexOf(':', CHUNKED.length())));
+        }
+        return 0;
+    }
+
+    // the key is Base64url encoded: the name is valid for a cookie and distinct for each key, the index being the digits
+    // after the last underscore
+    protected String getChunkName(final String key, final int index) {
+        return keyPrefix + Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8))
+                + "_" + index;
+    }
+
+    private static String digest(final String payload) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
         }
-        context.setNativeSession(context.getNativeSession().adding(keyPrefix + key, serialized));
+    }
+
+    protected Object stripAttributes(final Object value) {
+        if (value instanceof Map<?, ?>) {
+            ((Map<?, ?>) value).values().forEach(this::stripAttributes);
+        } else if (value instanceof BasicUserProfile) {
+            overflowStrippedAttributes.forEach(((BasicUserProfile) value)::removeAttribute);
+        }
+        return value;
     }
 
     @Override
@@ -114,21 +449,252 @@ public class PlayCookieSessionStore implements PlaySessionStore {
         }
     }
 
+    public SessionValueSerializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * Define how the values are serialized in the cookie. The default {@link CompactSessionValueSerializer} still reads
+     * the Java serialized values of the existing cookies.
+     *
+     * @param serializer the serializer
+     */
+    public void setSerializer(final SessionValueSerializer serializer) {
+        this.serializer = serializer;
+        if (decodedCookies != null) {
+            decodedCookies.clear();
+        }
+    }
+
+    public LocalCache<String, Object> getDecodedCookies() {
+        return decodedCookies;
+    }
+
+    /**
+     * Define the cache of the decoded cookies, which saves the decryption and the decompression of the cookie values
+     * read again. Its size bounds the memory used: 1000 entries for 10 minutes by default.
+     *
+     * @param decodedCookies the cache, <code>null</code> to disable it
+     */
+    public void setDecodedCookies(final LocalCache<String, Object> decodedCookies) {
+        this.decodedCookies = decodedCookies;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Define the maximum size of a value in the Play session when the chunking is enabled (see {@link #setMaxChunks(int)}):
+     * a larger value is split across numbered cookies. The default (2000) leaves room in the session cookie for the other
+     * values.
+     *
+     * @param chunkSize the maximum size of a value or of a chunk cookie
+     */
+    public void setChunkSize(final int chunkSize) {
+        CommonHelper.assertTrue(chunkSize > 0, "chunkSize must be greater than zero");
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    /**
+     * Enable the chunking with the maximum number of chunk cookies of a value: a value larger than the
+     * {@link #getChunkSize()} or the {@link #getMaxSessionCookieSize()} is then split across numbered cookies, and a
+     * value larger than all the chunks is stripped, saved in the overflow store or not saved. The cookies of a request
+     * must stay under the maximum size of the request headers of the server (8 KB by default for Play). By default, the
+     * chunking is disabled and all the values are saved in the Play session.
+     *
+     * @param maxChunks the maximum number of chunks (1 or less disables the chunking)
+     */
+    public void setMaxChunks(final int maxChunks) {
+        this.maxChunks = maxChunks;
+    }
+
+    public int getMaxValueSize() {
+        return maxValueSize;
+    }
+
+    /**
+     * Define the maximum size of an encoded value: a larger value is stripped of the
+     * {@link #getOverflowStrippedAttributes()}, then saved in the {@link #getOverflowStore()} or not saved. There is no
+     * maximum by default, except the size of all the chunks when the chunking is enabled.
+     *
+     * @param maxValueSize the maximum size of a value (0 or less for no maximum)
+     */
+    public void setMaxValueSize(final int maxValueSize) {
+        this.maxValueSize = maxValueSize;
+    }
+
+    public int getMaxSessionCookieSize() {
+        return maxSessionCookieSize;
+    }
+
+    /**
+     * Define the maximum size of the Play session cookie, with all its values, once JWT encoded (about 4/3 of the
+     * values plus a header and a signature): a value which would exceed it is chunked even if it is smaller than the
+     * {@link #getChunkSize()}. The browsers limit a cookie to 4096 bytes.
+     *
+     * @param maxSessionCookieSize the maximum size of the session cookie
+     */
+    public void setMaxSessionCookieSize(final int maxSessionCookieSize) {
+        CommonHelper.assertTrue(maxSessionCookieSize > 0, "maxSessionCookieSize must be greater than zero");
+        this.maxSessionCookieSize = maxSessionCookieSize;
+    }
+
+    public SessionConfiguration getSessionConfiguration() {
+        return sessionConfiguration;
+    }
+
+    /**
+     * Define the configuration of the Play session cookie (<code>play.http.session.*</code>): its name is used to
+     * estimate its size and the chunk cookies get its path, domain, secure, httpOnly, sameSite and maxAge attributes.
+     * It is read from the {@link HttpConfiguration} when the store is injected, the Play defaults are used otherwise.
+     *
+     * @param sessionConfiguration the session configuration
+     */
+    public void setSessionConfiguration(final SessionConfiguration sessionConfiguration) {
+        CommonHelper.assertNotNull("sessionConfiguration", sessionConfiguration);
+        this.sessionConfiguration = sessionConfiguration;
+    }
+
+    public DataEncrypter getSigningEncrypter() {
+        return signingEncrypter;
+    }
+
+    /**
+     * Define the encrypter of the signed keys, typically a {@link HmacDataEncrypter} with a key shared by the nodes. When
+     * the store is injected, it is derived from the application secret (<code>play.http.secret.key</code>); there is no
+     * default otherwise.
+     *
+     * @param signingEncrypter the signing encrypter
+     */
+    public void setSigningEncrypter(final DataEncrypter signingEncrypter) {
+        CommonHelper.assertNotNull("signingEncrypter", signingEncrypter);
+        this.signingEncrypter = signingEncrypter;
+    }
+
+    public Set<String> getSignedKeys() {
+        return signedKeys;
+    }
+
+    /**
+     * Define the keys whose values are not confidential (for example {@link Pac4jConstants#REQUESTED_URL}): they are
+     * only signed by the signing encrypter, without compression nor encryption, which is much cheaper for the small
+     * values. The values of the other keys are encrypted. The session values written before a key changes of mode can
+     * no longer be decoded. The {@link #setSigningEncrypter(DataEncrypter)} must be defined first.
+     *
+     * @param signedKeys the signed keys
+     */
+    public void setSignedKeys(final Set<String> signedKeys) {
+        CommonHelper.assertNotNull("signedKeys", signedKeys);
+        if (!signedKeys.isEmpty() && signingEncrypter == null) {
+            throw new TechnicalException("A signing encrypter with an explicit key must be defined for the signed keys");
+        }
+        this.signedKeys = signedKeys;
+    }
+
+    public List<String> getOverflowStrippedAttributes() {
+        return overflowStrippedAttributes;
+    }
+
+    /**
+     * Define the profile attributes removed from a value which exceeds the maximum size (see {@link #setMaxValueSize(int)}
+     * and {@link #setMaxChunks(int)}).
+     *
+     * @param overflowStrippedAttributes the names of the attributes
+     */
+    public void setOverflowStrippedAttributes(final List<String> overflowStrippedAttributes) {
+        CommonHelper.assertNotNull("overflowStrippedAttributes", overflowStrippedAttributes);
+        this.overflowStrippedAttributes = overflowStrippedAttributes;
+    }
+
+    public PlaySessionStore getOverflowStore() {
+        return overflowStore;
+    }
+
+    /**
+     * Define the session store, typically a {@link PlayCacheSessionStore}, of the values which still exceed the maximum
+     * size. Without it, these values are not saved.
+     *
+     * @param overflowStore the overflow store
+     */
+    public void setOverflowStore(final PlaySessionStore overflowStore) {
+        this.overflowStore = overflowStore;
+    }
+
+    /**
+     * Uncompress the raw deflate bytes, or the gzip bytes of the cookies written by the previous versions.
+     *
+     * @param zippedBytes the compressed bytes
+     * @return the uncompressed bytes, <code>null</code> if they cannot be uncompressed
+     */
     public static byte[] uncompressBytes(byte [] zippedBytes) {
+        if (zippedBytes == null) {
+            return null;
+        }
+        return toArray(inflate(ByteBuffer.wrap(zippedBytes)));
+    }
+
+    // the result is written into a buffer reused by the thread
+    private static ByteBuffer inflate(final ByteBuffer zipped) {
+        if (zipped == null) {
+            return null;
+        } else if (!zipped.hasArray()) {
+            return inflate(ByteBuffer.wrap(toArray(zipped)));
+        }
+        final byte[] zippedBytes = zipped.array();
+        final int offset = zipped.arrayOffset() + zipped.position();
+        final int zippedLength = zipped.remaining();
+        if (zippedLength >= 2 && zippedBytes[offset] == (byte) 0x1f && zippedBytes[offset + 1] == (byte) 0x8b) {
+            return gunzipBytes(zippedBytes, offset, zippedLength);
+        }
+        final Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(zippedBytes, offset, zippedLength);
+        byte[] result = INFLATED_BUFFER.get(Math.max(256, zippedLength * 4));
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == result.length) {
+                    result = INFLATED_BUFFER.grow(result, result.length * 2);
+                }
+                final int inflated = inflater.inflate(result, length, result.length - length);
+                if (inflated == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed data");
+                }
+                length += inflated;
+            }
+            return ByteBuffer.wrap(result, 0, length);
+        } catch (DataFormatException e) {
+            logger.error("Unable to uncompress session cookie", e);
+            return null;
+        }
+    }
+
+    private static ByteBuffer gunzipBytes(final byte[] zippedBytes, final int offset, final int length) {
         final ByteArrayOutputStream resultBao = new ByteArrayOutputStream();
-        try (GZIPInputStream zipInputStream = new GZIPInputStream(new ByteArrayInputStream(zippedBytes))) {
+        try (GZIPInputStream zipInputStream = new GZIPInputStream(new ByteArrayInputStream(zippedBytes, offset, length))) {
             byte[] buffer = new byte[8192];
             int len;
             while ((len = zipInputStream.read(buffer)) > 0) {
                 resultBao.write(buffer, 0, len);
             }
-            return resultBao.toByteArray();
+            return ByteBuffer.wrap(resultBao.toByteArray());
         } catch (IOException e) {
             logger.error("Unable to uncompress session cookie", e);
             return null;
         }
     }
 
+    /**
+     * Compress the bytes in the gzip format.
+     *
+     * @param srcBytes the bytes
+     * @return the compressed bytes, <code>null</code> if they cannot be compressed
+     */
     public static byte[] compressBytes(byte[] srcBytes) {
         final ByteArrayOutputStream resultBao = new ByteArrayOutputStream();
         try (GZIPOutputStream zipOutputStream = new GZIPOutputStream(resultBao)) {
@@ -140,4 +706,32 @@ public class PlayCookieSessionStore implements PlaySessionStore {
 
         return resultBao.toByteArray();
     }
+
+    /**
+     * Compress the bytes in the raw deflate format (without the gzip header and trailer), used by the session cookies.
+     *
+     * @param srcBytes the bytes
+     * @return the compressed bytes
+     */
+    public static byte[] deflateBytes(byte[] srcBytes) {
+        return toArray(deflate(srcBytes));
+    }
+
+    // the result is written into a buffer reused by the thread
+    private static ByteBuffer deflate(final byte[] srcBytes) {
+        final Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(srcBytes);
+        deflater.finish();
+        // sized for the worst case of deflate (incompressible data), slightly larger than the input
+        byte[] result = DEFLATED_BUFFER.get(srcBytes.length + (srcBytes.length >> 12) + 16);
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == result.length) {
+                result = DEFLATED_BUFFER.grow(result, result.length * 2);
+            }
+            length += deflater.deflate(result, length, result.length - length);
+        }
+        return ByteBuffer.wrap(result, 0, length);
+    }
 }
@@ -3,6 +3,9 @@ package org.pac4j.play.store;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.play.PlayWebContext;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * To store data in session.
  * Extending the SessionStore is necessary for dependency injection to work.
@@ -10,4 +13,36 @@ import org.pac4j.play.PlayWebContext;
  * @since 2.5.0
  */
 public interface PlaySessionStore extends SessionStore<PlayWebContext> {
+
+    /**
+     * Write the changes buffered for the web context. Called when the web context supplements the request or the
+     * response.
+     *
+     * @param context the web context
+     * @since 10.0.1
+     */
+    default void flush(final PlayWebContext context) {}
+
+    /**
+     * Load the session data of the web context without blocking, so that the following accesses are served from memory.
+     *
+     * @param context the web context
+     * @return the completion of the loading
+     * @since 10.0.1
+     */
+    default CompletionStage<Void> prefetch(final PlayWebContext context) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Write the changes buffered for the web context without blocking.
+     *
+     * @param context the web context
+     * @return the completion of all the writes started for the web context
+     * @since 10.0.1
+     */
+    default CompletionStage<Void> flushAsync(final PlayWebContext context) {
+        flush(context);
+        return CompletableFuture.completedFuture(null);
+    }
 }
@@ -0,0 +1,48 @@
+package org.pac4j.play.store;
+
+import java.util.Arrays;
+
+/**
+ * A byte array reused by each thread for the intermediate results of the session cookie pipeline. The arrays larger
+ * than the maximum reused size are not kept, so that a single large value does not pin memory in every thread.
+ *
+ * @since 10.0.1
+ */
+final class ReusableBuffer {
+
+    static final int MAX_REUSED_SIZE = 64 * 1024;
+
+    private final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    /**
+     * Get the array of the current thread, at least of the given size. Its content is only valid until the next call.
+     *
+     * @param minSize the minimum size
+     * @return the array
+     */
+    byte[] get(final int minSize) {
+        final byte[] bytes = buffer.get();
+        if (bytes.length >= minSize) {
+            return bytes;
+        }
+        return keep(new byte[Math.max(minSize, bytes.length * 2)]);
+    }
+
+    /**
+     * Grow an array obtained from this buffer, keeping its content.
+     *
+     * @param bytes the array
+     * @param minSize the minimum size
+     * @return the grown array
+     */
+    byte[] grow(final byte[] bytes, final int minSize) {
+        return keep(Arrays.copyOf(bytes, Math.max(minSize, bytes.length * 2)));
+    }
+
+    private byte[] keep(final byte[] bytes) {
+        if (bytes.length <= MAX_REUSED_SIZE) {
+            buffer.set(bytes);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,118 @@
+package org.pac4j.play.store;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The session values loaded from the cache for a web context: the later reads of the same request are served from
+ * memory instead of going back to the cache. The keys changed since the last write are tracked.
+ *
+ * @since 10.0.1
+ */
+public class SessionSnapshot {
+
+    private final String sessionId;
+
+    private final Map<String, Object> values;
+
+    private final Set<String> dirtyKeys = new HashSet<>();
+
+    public SessionSnapshot(final String sessionId, final Map<String, Object> values) {
+        CommonHelper.assertNotNull("sessionId", sessionId);
+        CommonHelper.assertNotNull("values", values);
+        this.sessionId = sessionId;
+        this.values = values;
+    }
+
+    /**
+     * Set a value and mark the key as dirty, unless the value is unchanged.
+     *
+     * @param key the key
+     * @param value the value
+     * @return whether the value has changed
+     */
+    public boolean put(final String key, final Object value) {
+        if (values.containsKey(key) && isUnchanged(values.get(key), value)) {
+            return false;
+        }
+        values.put(key, value);
+        dirtyKeys.add(key);
+        return true;
+    }
+
+    // a profile, a map or a collection may have been modified in place by the caller and most of them do not override
+    // equals: only the immutable values can be compared, any other value is always considered as changed
+    private static boolean isUnchanged(final Object current, final Object value) {
+        return isImmutable(current) && isImmutable(value) && current.equals(value);
+    }
+
+    private static boolean isImmutable(final Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long
+            || value instanceof Short || value instanceof Byte || value instanceof Double || value instanceof Float
+            || value instanceof Character || value instanceof Enum;
+    }
+
+    public boolean isDirty() {
+        return !dirtyKeys.isEmpty();
+    }
+
+    public Set<String> getDirtyKeys() {
+        return Collections.unmodifiableSet(dirtyKeys);
+    }
+
+    /**
+     * Get a copy of the values of the dirty keys, a <code>null</code> value for a removed key.
+     *
+     * @return the changed values
+     */
+    public Map<String, Object> getDirtyValues() {
+        final Map<String, Object> dirtyValues = new HashMap<>();
+        for (final String key : dirtyKeys) {
+            dirtyValues.put(key, values.get(key));
+        }
+        return dirtyValues;
+    }
+
+    /**
+     * Apply changed values to the session values currently stored in the cache: the keys changed by another request since
+     * the snapshot was loaded are kept, instead of being overwritten by the values of the snapshot.
+     *
+     * @param stored the session values read from the cache, <code>null</code> if there are none
+     * @param dirtyValues the changed values (see {@link #getDirtyValues()}), a <code>null</code> value removes the key
+     * @return the new session values
+     */
+    public static Map<String, Object> merge(final Map<String, Object> stored, final Map<String, Object> dirtyValues) {
+        final Map<String, Object> merged = stored != null ? new HashMap<>(stored) : new HashMap<>();
+        for (final Map.Entry<String, Object> entry : dirtyValues.entrySet()) {
+            if (entry.getValue() == null) {
+                merged.remove(entry.getKey());
+            } else {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    public void clearDirtyKeys() {
+        dirtyKeys.clear();
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "sessionId", sessionId, "keys", values.keySet(),
+                "dirtyKeys", dirtyKeys);
+    }
+}
@@ -0,0 +1,42 @@
+package org.pac4j.play.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts the values saved by the session stores to bytes and back.
+ *
+ * @since 10.0.1
+ */
+public interface SessionValueSerializer {
+
+    /**
+     * Serialize a value.
+     *
+     * @param value the value
+     * @return the serialized bytes, <code>null</code> if the value cannot be serialized
+     */
+    byte[] serialize(Object value);
+
+    /**
+     * Deserialize a value.
+     *
+     * @param bytes the serialized bytes
+     * @return the value, <code>null</code> if the bytes cannot be deserialized
+     */
+    Object deserialize(byte[] bytes);
+
+    /**
+     * Deserialize the remaining bytes of a buffer, without changing its position. By default, they are copied.
+     *
+     * @param bytes the serialized bytes
+     * @return the value
+     */
+    default Object deserializeBuffer(final ByteBuffer bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        final byte[] array = new byte[bytes.remaining()];
+        bytes.duplicate().get(array);
+        return deserialize(array);
+    }
+}
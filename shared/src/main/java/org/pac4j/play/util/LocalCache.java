@@ -0,0 +1,238 @@
+package org.pac4j.play.util;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, concurrent and in-memory cache with an optional time-to-live and hit/miss counters.
+ *
+ * When the cache is full, the entries are evicted with the second chance (CLOCK) approximation of a LRU: the oldest
+ * inserted entry is evicted, unless it has been read since it was queued, in which case it is queued again and the next
+ * one is considered. A key read on each request therefore survives a stream of new keys. Replacing the value of a key
+ * keeps its place in the queue. Reads and writes take no lock.
+ *
+ * @since 10.0.1
+ */
+public class LocalCache<K, V> {
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    // each entry is queued once, with the stamp of its insertion: the queued keys whose entry has been removed, expired or
+    // re-inserted since are stale and skipped by the eviction
+    private final ConcurrentLinkedQueue<Queued<K>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong stamps = new AtomicLong();
+
+    private final AtomicInteger nbRemovals = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Build a cache.
+     *
+     * @param maxSize the maximum number of entries (0 or less disables the cache)
+     * @param ttl the time-to-live of the entries (0 or less for no expiration)
+     * @param unit the unit of the time-to-live
+     */
+    public LocalCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        CommonHelper.assertNotNull("unit", unit);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl > 0 ? unit.toNanos(ttl) : 0;
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param key the key
+     * @return the entry (whose value may be <code>null</code>) or <code>null</code> if there is no valid entry for the key
+     */
+    public Entry<V> getEntry(final K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (entry.isExpired()) {
+                if (entries.remove(key, entry)) {
+                    afterRemoval();
+                }
+            } else {
+                // only written once between two evictions, to keep the reads cheap
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param key the key
+     * @return the value or <code>null</code> if there is no valid entry for the key
+     */
+    public V get(final K key) {
+        final Entry<V> entry = getEntry(key);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * Put a value.
+     *
+     * @param key the key
+     * @param value the value (may be <code>null</code>)
+     */
+    public void put(final K key, final V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        final long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        final long stamp = stamps.incrementAndGet();
+        // an entry replacing a queued entry takes its stamp, and therefore its place in the queue
+        final Entry<V> entry = entries.compute(key, (k, previous) ->
+                new Entry<>(value, expiresAt, previous != null ? previous.stamp : stamp));
+        if (entry.stamp == stamp) {
+            insertionOrder.add(new Queued<>(key, stamp));
+            if (entries.size() > maxSize) {
+                evict();
+            }
+        }
+    }
+
+    private void evict() {
+        // the second chances are bounded, so that the concurrent reads cannot prevent the eviction
+        int secondChances = 0;
+        while (entries.size() > maxSize) {
+            final Queued<K> eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            final boolean giveSecondChance = secondChances < maxSize;
+            final boolean[] requeue = new boolean[1];
+            entries.computeIfPresent(eldest.key, (k, entry) -> {
+                if (entry.stamp != eldest.stamp) {
+                    return entry;
+                } else if (entry.referenced && giveSecondChance) {
+                    entry.referenced = false;
+                    requeue[0] = true;
+                    return entry;
+                }
+                return null;
+            });
+            if (requeue[0]) {
+                secondChances++;
+                insertionOrder.add(eldest);
+            }
+        }
+    }
+
+    public void remove(final K key) {
+        if (entries.remove(key) != null) {
+            afterRemoval();
+        }
+    }
+
+    // the stale queued keys are purged once there are as many as the maximum size
+    private void afterRemoval() {
+        if (nbRemovals.incrementAndGet() >= maxSize) {
+            nbRemovals.set(0);
+            insertionOrder.removeIf(this::isStale);
+        }
+    }
+
+    private boolean isStale(final Queued<K> queued) {
+        final Entry<V> entry = entries.get(queued.key);
+        return entry == null || entry.stamp != queued.stamp;
+    }
+
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+        nbRemovals.set(0);
+    }
+
+    int getQueueSize() {
+        return insertionOrder.size();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        final long h = getHits();
+        final long total = h + getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "maxSize", maxSize, "ttlNanos", ttlNanos, "size", size(),
+                "hits", getHits(), "misses", getMisses());
+    }
+
+    /**
+     * A cache entry.
+     */
+    public static final class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private final long stamp;
+
+        private volatile boolean referenced;
+
+        private Entry(final V value, final long expiresAt, final long stamp) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.stamp = stamp;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        private boolean isExpired() {
+            return expiresAt != 0 && System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    private static final class Queued<K> {
+
+        private final K key;
+
+        private final long stamp;
+
+        private Queued(final K key, final long stamp) {
+            this.key = key;
+            this.stamp = stamp;
+        }
+    }
+}
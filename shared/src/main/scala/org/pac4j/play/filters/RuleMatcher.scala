@@ -0,0 +1,125 @@
+package org.pac4j.play.filters
+
+import java.util.concurrent.TimeUnit
+import java.util.regex.Pattern
+
+import org.pac4j.play.filters.RuleMatcher._
+import org.pac4j.play.filters.SecurityFilter.{DecisionCacheSettings, Rule}
+import org.pac4j.play.util.LocalCache
+
+/**
+  * Finds the first rule of the [[SecurityFilter]] matching a normalized path.
+  *
+  * The regexes of the rules are compiled once. The literal prefix of each regex (the part before its first meta
+  * character) is indexed in a trie, so that only the rules whose literal prefix is a prefix of the path are evaluated.
+  * The rules are still evaluated in their declaration order: the first matching rule wins.
+  *
+  * The decisions are memoized per normalized path in a bounded [[LocalCache]]. Paths longer than the configured maximum
+  * key length are never cached, so that cache-busting query strings cannot fill the cache with large keys.
+  *
+  * @since 10.0.1
+  */
+private[filters] final class RuleMatcher(val rules: Seq[Rule], cacheSettings: DecisionCacheSettings = DecisionCacheSettings()) {
+
+  private val patterns: Array[Pattern] = rules.map(rule => Pattern.compile(rule.pathRegex)).toArray
+
+  private val root: TrieNode = buildTrie()
+
+  private[filters] val decisionCache: LocalCache[String, Option[Rule]] =
+    new LocalCache(cacheSettings.maxSize, cacheSettings.ttl.toMillis, TimeUnit.MILLISECONDS)
+
+  /**
+    * Finds the first rule matching the normalized path.
+    *
+    * @param normalizedPath the path (and query string) of the request, without multiple slashes
+    * @return the first matching rule, if any
+    */
+  def find(normalizedPath: String): Option[Rule] =
+    if (cacheSettings.maxSize > 0 && normalizedPath.length <= cacheSettings.maxKeyLength) {
+      val cached = decisionCache.getEntry(normalizedPath)
+      if (cached != null) {
+        cached.getValue
+      } else {
+        val decision = findUncached(normalizedPath)
+        decisionCache.put(normalizedPath, decision)
+        decision
+      }
+    } else {
+      findUncached(normalizedPath)
+    }
+
+  private def findUncached(path: String): Option[Rule] = {
+    val index = findIndex(path)
+    if (index >= 0) Some(rules(index)) else None
+  }
+
+  private def findIndex(path: String): Int = {
+    val candidates = new java.util.BitSet(patterns.length)
+    var node = root
+    var i = 0
+    while (node != null) {
+      node.ruleIndexes.foreach(candidates.set)
+      node = if (i < path.length) node.children.get(path.charAt(i)) else null
+      i += 1
+    }
+
+    var index = candidates.nextSetBit(0)
+    while (index >= 0 && !patterns(index).matcher(path).matches()) {
+      index = candidates.nextSetBit(index + 1)
+    }
+    index
+  }
+
+  private def buildTrie(): TrieNode = {
+    val trie = new TrieNode
+    rules.zipWithIndex.foreach { case (rule, index) =>
+      val prefix = literalPrefix(rule.pathRegex)
+      var node = trie
+      prefix.foreach { c =>
+        var child = node.children.get(c)
+        if (child == null) {
+          child = new TrieNode
+          node.children.put(c, child)
+        }
+        node = child
+      }
+      node.ruleIndexes = node.ruleIndexes :+ index
+    }
+    trie
+  }
+}
+
+private[filters] object RuleMatcher {
+
+  private val MetaCharacters = "\\[](){}.*+?^$|"
+
+  private val OptionalQuantifiers = "*?{"
+
+  private final class TrieNode {
+    val children = new java.util.HashMap[Character, TrieNode]
+    var ruleIndexes: Array[Int] = Array.emptyIntArray
+  }
+
+  /**
+    * Computes the literal prefix that any input must start with to fully match the regex.
+    *
+    * @param regex the regex
+    * @return the literal prefix, possibly empty
+    */
+  def literalPrefix(regex: String): String = {
+    // an alternation can make any character optional
+    if (regex.indexOf('|') >= 0) {
+      ""
+    } else {
+      var end = 0
+      while (end < regex.length && MetaCharacters.indexOf(regex.charAt(end)) < 0) {
+        end += 1
+      }
+      // the last literal character is optional if it's followed by a quantifier allowing zero occurrence
+      if (end > 0 && end < regex.length && OptionalQuantifiers.indexOf(regex.charAt(end)) >= 0) {
+        end -= 1
+      }
+      regex.substring(0, end)
+    }
+  }
+}
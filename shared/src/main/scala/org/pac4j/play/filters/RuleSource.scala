@@ -0,0 +1,87 @@
+package org.pac4j.play.filters
+
+import java.io.File
+
+import com.typesafe.config.{ConfigFactory, ConfigParseOptions}
+import play.api.Configuration
+
+/**
+  * Source of the rules of the [[SecurityFilter]]: it provides a configuration holding the `pac4j.security.rules`.
+  *
+  * @since 10.0.1
+  */
+trait RuleSource {
+
+  /**
+    * Loads the configuration holding the rules.
+    *
+    * @return the configuration
+    */
+  def load(): Configuration
+
+  /**
+    * Whether the rules may have changed since the last load.
+    *
+    * @return whether the rules must be reloaded
+    */
+  def hasChanged: Boolean
+}
+
+object RuleSource {
+
+  /**
+    * Builds the default rule source: the file defined by `pac4j.security.rulesFile` if any, the application
+    * configuration otherwise.
+    *
+    * @param configuration the application configuration
+    * @return the rule source
+    */
+  def apply(configuration: Configuration): RuleSource =
+    configuration.getOptional[String]("pac4j.security.rulesFile")
+      .map(path => fromFile(new File(path)))
+      .getOrElse(fromConfiguration(configuration))
+
+  def fromConfiguration(configuration: Configuration): RuleSource = new RuleSource {
+    override def load(): Configuration = configuration
+    override def hasChanged: Boolean = false
+  }
+
+  def fromFile(file: File): RuleSource = new FileRuleSource(file)
+
+  /**
+    * Builds a rule source from a supplier, which knows whether its rules have changed.
+    *
+    * @param supplier the supplier of the configuration holding the rules
+    * @param changed whether the rules may have changed since the last load (always by default: the reloaded rules are
+    *                then only swapped in when they differ from the current ones)
+    * @return the rule source
+    */
+  def fromSupplier(supplier: () => Configuration, changed: () => Boolean = () => true): RuleSource = new RuleSource {
+    override def load(): Configuration = supplier()
+    override def hasChanged: Boolean = changed()
+  }
+}
+
+/**
+  * Loads the rules from a HOCON file, which is considered as changed when its last modification date changes. A missing
+  * file is an error, not an empty configuration: the rules would otherwise silently disappear.
+  *
+  * @param file the file
+  * @since 10.0.1
+  */
+class FileRuleSource(file: File) extends RuleSource {
+
+  @volatile private var loadedLastModified: Long = -1L
+
+  override def load(): Configuration = {
+    val lastModified = file.lastModified()
+    val configuration =
+      new Configuration(ConfigFactory.parseFile(file, ConfigParseOptions.defaults().setAllowMissing(false)).resolve())
+    loadedLastModified = lastModified
+    configuration
+  }
+
+  override def hasChanged: Boolean = file.lastModified() != loadedLastModified
+
+  override def toString: String = s"FileRuleSource($file)"
+}
@@ -1,5 +1,8 @@
 package org.pac4j.play.filters
 
+import java.util.concurrent.atomic.{AtomicLong, AtomicReference}
+import java.util.regex.Pattern
+
 import akka.stream.Materializer
 import javax.inject.{Inject, Singleton}
 import org.pac4j.core.config.Config
@@ -10,11 +13,13 @@ import org.pac4j.play.java.SecureAction
 import org.pac4j.play.store.PlaySessionStore
 import play.api.mvc._
 import play.api.{Configuration, Logger}
+import play.libs.concurrent.HttpExecutionContext
 import play.mvc
 
 import scala.compat.java8.FutureConverters._
+import scala.concurrent.duration.{Duration, FiniteDuration}
 import scala.concurrent.{ExecutionContext, Future}
-import scala.util.Failure
+import scala.util.{Failure, Success, Try}
 
 /**
   * Filter on all requests to apply security by the Pac4J framework.
@@ -29,6 +34,16 @@ import scala.util.Failure
   * Rules are traversed and applied from top to bottom. The first matching rule will define which clients, authorizers and matchers
   * are used. When not provided, the value will be `null`.
   *
+  * The matching rule is cached per normalized path + query string. The cache can be tuned with `pac4j.security.cache.maxSize`
+  * (0 to disable it), `pac4j.security.cache.ttl` and `pac4j.security.cache.maxKeyLength` (longer paths are never cached).
+  *
+  * The rules can also be read from a [[RuleSource]], like the file defined by `pac4j.security.rulesFile`. When
+  * `pac4j.security.rulesReloadInterval` is defined, the source is checked for changes at this interval and the rules are
+  * reloaded without restart. They can also be reloaded on demand with `reloadRules()`. The new rules are compiled aside
+  * and swapped in atomically: in-flight requests never see a partially built rule set. When the source cannot be loaded
+  * or has no `pac4j.security.rules`, the current rules are kept; when the rules are unchanged, the current rules and
+  * their decision cache are kept.
+  *
   * @example {{{
   * security.rules = [
   *   # Admin pages need a special authorizer and login is done via a form page.
@@ -57,14 +72,74 @@ import scala.util.Failure
   * @since 2.1.0
   */
 @Singleton
-class SecurityFilter @Inject()(configuration: Configuration, playSessionStore: PlaySessionStore, config: Config)
-                              (implicit val ec: ExecutionContext, val mat: Materializer) extends Filter {
+class SecurityFilter(configuration: Configuration, playSessionStore: PlaySessionStore, config: Config, ruleSource: RuleSource)
+                    (implicit val ec: ExecutionContext, val mat: Materializer) extends Filter {
+
+  @Inject()
+  def this(configuration: Configuration, playSessionStore: PlaySessionStore, config: Config)
+          (implicit ec: ExecutionContext, mat: Materializer) =
+    this(configuration, playSessionStore, config, RuleSource(configuration))
+
   private val log = Logger(this.getClass)
 
-  private val rules: Seq[Rule] = loadRules(configuration)
+  private val decisionCacheSettings = loadDecisionCacheSettings(configuration)
+
+  private val ruleMatcher = new AtomicReference[RuleMatcher](buildRuleMatcher())
+
+  private val reloadIntervalNanos: Long =
+    configuration.getOptional[FiniteDuration]("pac4j.security.rulesReloadInterval").map(_.toNanos).getOrElse(0L)
+
+  private val nextReloadCheck = new AtomicLong(System.nanoTime() + reloadIntervalNanos)
+
+  def decisionCacheHits: Long = ruleMatcher.get.decisionCache.getHits
+
+  def decisionCacheMisses: Long = ruleMatcher.get.decisionCache.getMisses
+
+  /**
+    * Reloads the rules from the rule source and swaps them in atomically if they have changed.
+    *
+    * @return whether new rules have been swapped in
+    */
+  def reloadRules(): Boolean =
+    Try(ruleSource.load()) match {
+      case Failure(ex) =>
+        log.error(s"Cannot load the security filter rules from $ruleSource, keeping the current ones", ex)
+        false
+      case Success(loaded) if !loaded.has(RulesPath) =>
+        log.error(s"No $RulesPath in $ruleSource, keeping the current security filter rules")
+        false
+      case Success(loaded) =>
+        val rules = loadRules(loaded)
+        if (rules == ruleMatcher.get.rules) {
+          log.debug(s"Security filter rules unchanged in $ruleSource")
+          false
+        } else {
+          ruleMatcher.set(new RuleMatcher(rules, decisionCacheSettings))
+          log.info(s"Security filter rules reloaded from $ruleSource")
+          true
+        }
+    }
+
+  private def buildRuleMatcher(): RuleMatcher = new RuleMatcher(loadRules(ruleSource.load()), decisionCacheSettings)
+
+  private def checkForRuleChanges(): Unit = {
+    val next = nextReloadCheck.get
+    val now = System.nanoTime()
+    // only one request triggers the check, which runs outside of the request processing
+    if (now - next >= 0 && nextReloadCheck.compareAndSet(next, now + reloadIntervalNanos)) {
+      Future {
+        if (ruleSource.hasChanged) {
+          reloadRules()
+        }
+      }.failed.foreach(ex => log.error("Cannot reload the security filter rules, keeping the current ones", ex))
+    }
+  }
 
   override def apply(nextFilter: RequestHeader => Future[play.api.mvc.Result])
                     (request: RequestHeader): Future[play.api.mvc.Result] = {
+    if (reloadIntervalNanos > 0) {
+      checkForRuleChanges()
+    }
     findRule(request).flatMap(_.data) match {
       case Some(rule) =>
         log.debug(s"Authentication needed for ${request.uri}")
@@ -78,7 +153,7 @@ class SecurityFilter @Inject()(configuration: Configuration, playSessionStore: P
 
   private def proceedRuleLogic(nextFilter: RequestHeader => Future[Result], request: RequestHeader, rule: RuleData): Future[Result] = {
     val webContext = new PlayWebContext(request, playSessionStore)
-    val securityAction = new SecureAction(config, playSessionStore)
+    val securityAction = new SecureAction(config, playSessionStore, new HttpExecutionContext((runnable: Runnable) => ec.execute(runnable)))
 
     def calculateResult(secureActionResult: mvc.Result): Future[Result] = {
       val isAuthSucceeded = secureActionResult == null
@@ -106,10 +181,9 @@ class SecurityFilter @Inject()(configuration: Configuration, playSessionStore: P
     futureResult.andThen { case Failure(ex) => log.error("Exception during authentication procedure", ex) }
   }
 
-  private def findRule(request: RequestHeader): Option[Rule] = {
-    val pathNormalized = getNormalizedPath(request)
-    rules.find(rule => pathNormalized.matches(rule.pathRegex))
-  }
+  // package visible for the benchmarks
+  private[filters] def findRule(request: RequestHeader): Option[Rule] =
+    ruleMatcher.get.find(getNormalizedPath(request))
 
   private def getNormalizedPath(request: RequestHeader): String = {
     val pathPart = removeMultipleSlashed(request.path)
@@ -121,16 +195,31 @@ class SecurityFilter @Inject()(configuration: Configuration, playSessionStore: P
   }
 
   private def removeMultipleSlashed(path: String): String =
-    path.replaceAll("(/){2,}", "$1")
+    if (path.contains("//")) MultipleSlashes.matcher(path).replaceAll("/") else path
 }
 
 object SecurityFilter {
+  private val MultipleSlashes = Pattern.compile("/{2,}")
+
+  private val RulesPath = "pac4j.security.rules"
+
   private[filters] case class Rule(pathRegex: String, data: Option[RuleData])
   private[filters] case class RuleData(clients: String, authorizers: String, matchers: String)
+  private[filters] case class DecisionCacheSettings(maxSize: Int = 1000, ttl: FiniteDuration = Duration.Zero, maxKeyLength: Int = 512)
+
+  private[filters]
+  def loadDecisionCacheSettings(configuration: Configuration): DecisionCacheSettings = {
+    val defaults = DecisionCacheSettings()
+    DecisionCacheSettings(
+      configuration.getOptional[Int]("pac4j.security.cache.maxSize").getOrElse(defaults.maxSize),
+      configuration.getOptional[FiniteDuration]("pac4j.security.cache.ttl").getOrElse(defaults.ttl),
+      configuration.getOptional[Int]("pac4j.security.cache.maxKeyLength").getOrElse(defaults.maxKeyLength)
+    )
+  }
 
   private[filters]
   def loadRules(configuration: Configuration): Seq[Rule] = {
-    val ruleConfigs = configuration.getOptional[Seq[Configuration]]("pac4j.security.rules").getOrElse(Seq())
+    val ruleConfigs = configuration.getOptional[Seq[Configuration]](RulesPath).getOrElse(Seq())
     ruleConfigs.map(convertConfToRule)
   }
 
@@ -4,6 +4,7 @@ import javax.inject.{Inject, Singleton}
 import scala.concurrent.ExecutionContext
 import scala.language.higherKinds
 import play.api.mvc._
+import play.libs.concurrent.HttpExecutionContext
 import org.pac4j.core.config.Config
 import org.pac4j.core.profile.CommonProfile
 import org.pac4j.play.PlayWebContext
@@ -68,13 +69,15 @@ case class SecureAction[P<:CommonProfile, ContentType, R[X]>:AuthenticatedReques
 
   def invokeBlock[A](request: Request[A], block: R[A] => Future[Result]) = {
     val webContext = new PlayWebContext(request, playSessionStore)
-    val secureAction = new org.pac4j.play.java.SecureAction(config, playSessionStore)
+    val secureAction = new org.pac4j.play.java.SecureAction(config, playSessionStore,
+      new HttpExecutionContext((runnable: Runnable) => executionContext.execute(runnable)))
     secureAction.call(webContext, clients, authorizers, matchers, multiProfile).toScala.flatMap[play.api.mvc.Result](r =>
       if (r == null) {
         val profileManager = new ProfileManager[P](webContext)
         val profiles = profileManager.getAllLikeDefaultSecurityLogic(true)
         logger.debug("profiles: {}", profiles)
         block(AuthenticatedRequest(profiles.asScala.toList, webContext.supplementRequest(request.asJava).asScala.asInstanceOf[Request[A]]))
+          .flatMap(result => playSessionStore.flushAsync(webContext).toScala.map(_ => result))
       } else {
         Future successful {
           r.asScala
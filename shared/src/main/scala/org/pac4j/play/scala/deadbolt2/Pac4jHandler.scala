@@ -2,6 +2,7 @@ package org.pac4j.play.scala.deadbolt2
 
 import java.util.Optional
 
+import scala.compat.java8.FutureConverters._
 import scala.concurrent.{ExecutionContext, Future}
 import scala.language.implicitConversions
 import be.objectify.deadbolt.scala.{AuthenticatedRequest, DeadboltHandler, DynamicResourceHandler}
@@ -19,7 +20,7 @@ import org.pac4j.core.profile.{CommonProfile, ProfileManager}
 import org.pac4j.core.util.CommonHelper.isNotEmpty
 import org.pac4j.play.PlayWebContext
 import org.pac4j.play.store.PlaySessionStore
-import play.api.mvc.{Request, RequestHeader, Result}
+import play.api.mvc.{Request, Result}
 
 /**
   * @author Zenkie Zhu
@@ -30,13 +31,22 @@ class Pac4jHandler(config: Config, clients: String, playSessionStore: PlaySessio
 
   implicit def asScalaOption[B](o: Optional[B]) = if (o.isPresent) Some(o.get) else None
 
-  override def beforeAuthCheck[A](request: Request[A]): Future[Option[Result]] = Future {
-    val profile = getProfile(request)
+  override def beforeAuthCheck[A](request: Request[A]): Future[Option[Result]] = {
+    val playWebContext = new PlayWebContext(request, playSessionStore)
+    // the session data are loaded without blocking, the result is returned once they are written
+    for {
+      _ <- playSessionStore.prefetch(playWebContext).toScala
+      result = checkAuthentication(playWebContext)
+      _ <- playSessionStore.flushAsync(playWebContext).toScala
+    } yield result
+  }
+
+  private def checkAuthentication(playWebContext: PlayWebContext): Option[Result] = {
+    val profile = getProfile(playWebContext)
     if (profile.isDefined) {
       logger.debug("profile found -> returning None")
       None
     } else {
-      val playWebContext = new PlayWebContext(request, playSessionStore)
       val currentClients = getClientFinder().find(config.getClients(), playWebContext, clients)
 
       logger.debug("currentClients: {}", currentClients)
@@ -49,8 +59,8 @@ class Pac4jHandler(config: Config, clients: String, playSessionStore: PlaySessio
           if (credentials.isPresent()) {
             val userProfile = credentials.get().getUserProfile
             if (userProfile != null) {
-              setProfile(request, userProfile)
-              return Future { None }
+              setProfile(playWebContext, userProfile)
+              return None
             }
           }
           logger.debug("unauthorized")
@@ -71,21 +81,20 @@ class Pac4jHandler(config: Config, clients: String, playSessionStore: PlaySessio
     }
   }
 
-  override def getSubject[A](request: AuthenticatedRequest[A]): Future[Option[Subject]] = Future {
-    getProfile(request).map(Pac4jSubject(_))
+  override def getSubject[A](request: AuthenticatedRequest[A]): Future[Option[Subject]] = {
+    val playWebContext = new PlayWebContext(request, playSessionStore)
+    playSessionStore.prefetch(playWebContext).toScala.map(_ => getProfile(playWebContext).map(Pac4jSubject(_)))
   }
 
   override def getPermissionsForRole(roleName: String): Future[List[String]] =
     rolePermissionsHandler.getPermissionsForRole(clients, roleName)
 
-  private def getProfile(request: RequestHeader): Option[CommonProfile] = {
-    val playWebContext = new PlayWebContext(request, playSessionStore)
+  private def getProfile(playWebContext: PlayWebContext): Option[CommonProfile] = {
     val profileManager = new ProfileManager[CommonProfile](playWebContext)
     profileManager.getLikeDefaultSecurityLogic(true)
   }
 
-  private def setProfile(request: RequestHeader, profile: CommonProfile): Unit = {
-    val playWebContext = new PlayWebContext(request, playSessionStore)
+  private def setProfile(playWebContext: PlayWebContext, profile: CommonProfile): Unit = {
     playWebContext.setRequestAttribute(Pac4jConstants.USER_PROFILES, profile)
   }
 
@@ -4,10 +4,21 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.play.store.PlaySessionStore;
 
+import play.mvc.Http;
 import play.mvc.Http.Request;
+import play.mvc.Result;
+import play.mvc.Results;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -73,4 +84,133 @@ public final class PlayWebContextTests implements TestsConstants {
 
         assertEquals(443, webContext.getServerPort());
     }
+
+    @Test
+    public void testRequestParameters() {
+        final Map<String, String[]> bodyParameters = new HashMap<>();
+        bodyParameters.put(KEY, new String[] { VALUE });
+        bodyParameters.put(NAME, new String[] { VALUE });
+        final Request request = new Http.RequestBuilder()
+                .uri("/path?" + NAME + "=" + FIRSTNAME_VALUE)
+                .bodyFormArrayValues(bodyParameters)
+                .build();
+        final PlayWebContext context = new PlayWebContext(request, mock(PlaySessionStore.class));
+
+        assertEquals(Optional.of(VALUE), context.getRequestParameter(KEY));
+        assertEquals(Optional.of(FIRSTNAME_VALUE), context.getRequestParameter(NAME));
+        assertEquals(Optional.empty(), context.getRequestParameter(ID));
+
+        final Map<String, String[]> parameters = context.getRequestParameters();
+        assertEquals(2, parameters.size());
+        assertArrayEquals(new String[] { FIRSTNAME_VALUE }, parameters.get(NAME));
+        assertSame(parameters, context.getRequestParameters());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRequestParametersAreReadOnly() {
+        webContext.getRequestParameters().put(KEY, new String[] { VALUE });
+    }
+
+    @Test
+    public void testRequestCookies() {
+        final Request request = new Http.RequestBuilder()
+                .cookie(Http.Cookie.builder(KEY, VALUE).build())
+                .cookie(Http.Cookie.builder(NAME, FIRSTNAME_VALUE).build())
+                .build();
+        final PlayWebContext context = new PlayWebContext(request, mock(PlaySessionStore.class));
+
+        assertEquals(FIRSTNAME_VALUE, context.getRequestCookie(NAME).get().getValue());
+        assertFalse(context.getRequestCookie(ID).isPresent());
+
+        final Collection<Cookie> cookies = context.getRequestCookies();
+        assertEquals(2, cookies.size());
+        assertSame(cookies, context.getRequestCookies());
+        assertEquals(VALUE, context.getRequestCookie(KEY).get().getValue());
+        assertFalse(context.getRequestCookie(ID).isPresent());
+    }
+
+    @Test
+    public void testRequestAttributes() {
+        final Request request = new Http.RequestBuilder().build();
+        final PlayWebContext context = new PlayWebContext(request, mock(PlaySessionStore.class));
+
+        assertFalse(context.getRequestAttribute(KEY).isPresent());
+        context.setRequestAttribute(KEY, VALUE);
+        assertEquals(Optional.of(VALUE), context.getRequestAttribute(KEY));
+
+        final Request supplemented = context.supplementRequest(request);
+        final PlayWebContext nextContext = new PlayWebContext(supplemented, mock(PlaySessionStore.class));
+        assertEquals(Optional.of(VALUE), nextContext.getRequestAttribute(KEY));
+
+        nextContext.setRequestAttribute(KEY, null);
+        assertFalse(nextContext.getRequestAttribute(KEY).isPresent());
+    }
+
+    @Test
+    public void testServerNameAndPort() {
+        when(requestMock.secure()).thenReturn(true);
+        when(requestMock.host()).thenReturn(domainWithoutPort + ":9000");
+        when(requestMock.uri()).thenReturn("/path?key=value");
+
+        assertEquals(domainWithoutPort, webContext.getServerName());
+        assertEquals(9000, webContext.getServerPort());
+        assertEquals("https", webContext.getScheme());
+        assertEquals("https://" + domainWithoutPort + ":9000/path?key=value", webContext.getFullRequestURL());
+        assertEquals(9000, webContext.getServerPort());
+        // parsed once for the server name and port, read once for the full URL
+        verify(requestMock, times(2)).host();
+    }
+
+    @Test
+    public void testIpv6ServerNameAndPort() {
+        when(requestMock.secure()).thenReturn(false);
+        when(requestMock.host()).thenReturn("[2001:db8::1]:9000");
+        assertEquals("[2001:db8::1]", webContext.getServerName());
+        assertEquals(9000, webContext.getServerPort());
+    }
+
+    @Test
+    public void testEmptyOrInvalidPort() {
+        when(requestMock.secure()).thenReturn(true);
+        when(requestMock.host()).thenReturn(domainWithoutPort + ":");
+        assertEquals(domainWithoutPort, webContext.getServerName());
+        assertEquals(443, webContext.getServerPort());
+        when(requestMock.host()).thenReturn(domainWithoutPort + ":abc");
+        assertEquals(443, new PlayWebContext(requestMock, mock(PlaySessionStore.class)).getServerPort());
+        when(requestMock.host()).thenReturn(domainWithoutPort + ":99999");
+        assertEquals(443, new PlayWebContext(requestMock, mock(PlaySessionStore.class)).getServerPort());
+    }
+
+    @Test
+    public void testIpv6ServerNameWithoutPort() {
+        when(requestMock.secure()).thenReturn(false);
+        when(requestMock.host()).thenReturn("[::1]");
+        assertEquals("[::1]", webContext.getServerName());
+        assertEquals(80, webContext.getServerPort());
+    }
+
+    @Test
+    public void testSupplementResponse() {
+        final Result result = Results.ok("body")
+                .withHeader(HttpConstants.LOCATION_HEADER, PAC4J_URL)
+                .withCookies(Http.Cookie.builder(KEY, VALUE).build(), Http.Cookie.builder(NAME, VALUE).build());
+        webContext.setResponseHeader("location", CALLBACK_URL);
+        webContext.setResponseHeader(HEADER_NAME, VALUE);
+        webContext.addResponseCookie(new Cookie(NAME, FIRSTNAME_VALUE));
+        webContext.setResponseContentType(HttpConstants.APPLICATION_JSON);
+        webContext.setNativeSession(new Http.Session(Collections.singletonMap(KEY, VALUE)));
+
+        final Result supplemented = webContext.supplementResponse(result);
+        assertEquals(200, supplemented.status());
+        assertEquals(2, supplemented.headers().size());
+        assertEquals(Optional.of(CALLBACK_URL), supplemented.header(HttpConstants.LOCATION_HEADER));
+        assertEquals(Optional.of(VALUE), supplemented.header(HEADER_NAME));
+        assertEquals(VALUE, supplemented.cookie(KEY).get().value());
+        assertEquals(FIRSTNAME_VALUE, supplemented.cookie(NAME).get().value());
+        assertEquals(Optional.of(HttpConstants.APPLICATION_JSON), supplemented.contentType());
+        assertEquals(Optional.of(VALUE), supplemented.session().getOptional(KEY));
+
+        // nothing left to apply
+        assertSame(result, webContext.supplementResponse(result));
+    }
 }
@@ -0,0 +1,42 @@
+package org.pac4j.play.deadbolt2;
+
+import be.objectify.deadbolt.java.models.Subject;
+import org.junit.Test;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.store.PlaySessionStore;
+import play.libs.concurrent.HttpExecutionContext;
+import play.mvc.Http;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the {@link Pac4jHandler}.
+ *
+ * @since 10.0.1
+ */
+public final class Pac4jHandlerTests implements TestsConstants {
+
+    @Test
+    public void testSubjectIsReadOnceTheSessionIsPrefetched() {
+        final PlaySessionStore sessionStore = mock(PlaySessionStore.class);
+        final CompletableFuture<String> cacheRead = new CompletableFuture<>();
+        when(sessionStore.prefetch(any())).thenReturn(cacheRead.thenAccept(v -> {}));
+        when(sessionStore.get(any(), anyString())).thenReturn(Optional.empty());
+        final Pac4jHandler handler = new Pac4jHandler(new Config(), new HttpExecutionContext(Runnable::run), CLIENT_NAME,
+                sessionStore, null);
+
+        final CompletableFuture<Optional<? extends Subject>> subject =
+                handler.getSubject(new Http.RequestBuilder().build()).toCompletableFuture();
+        assertFalse(subject.isDone());
+        verify(sessionStore, never()).get(any(), anyString());
+
+        cacheRead.complete(VALUE);
+        assertTrue(subject.isDone());
+        assertFalse(subject.join().isPresent());
+    }
+}
@@ -0,0 +1,79 @@
+package org.pac4j.play.filters
+
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.BlockJUnit4ClassRunner
+import org.pac4j.play.filters.SecurityFilter.{DecisionCacheSettings, Rule, RuleData}
+import org.scalatest.matchers.should.Matchers._
+
+//noinspection TypeAnnotation
+@RunWith(classOf[BlockJUnit4ClassRunner])
+class RuleMatcherTests {
+
+  private val admin = Rule("/admin/.*", Some(RuleData("FormClient", "admin", null)))
+  private val login = Rule("/login.html", Some(RuleData("AnonymousClient", null, null)))
+  private val callback = Rule("/callback.*", None)
+  private val optionalSlash = Rule("/api/?", Some(RuleData("HeaderClient", null, null)))
+  private val alternation = Rule("/(css|js)/.*|/favicon.ico", None)
+  private val catchAll = Rule(".*", Some(RuleData("FormClient,TwitterClient", null, null)))
+
+  private val rules = Seq(admin, login, callback, optionalSlash, alternation, catchAll)
+
+  @Test
+  def testLiteralPrefix(): Unit = {
+    RuleMatcher.literalPrefix("/admin/.*") shouldBe "/admin/"
+    RuleMatcher.literalPrefix("/callback") shouldBe "/callback"
+    RuleMatcher.literalPrefix("/api/?") shouldBe "/api"
+    RuleMatcher.literalPrefix("/apis*") shouldBe "/api"
+    RuleMatcher.literalPrefix("/api+") shouldBe "/api"
+    RuleMatcher.literalPrefix("/(css|js)/.*") shouldBe ""
+    RuleMatcher.literalPrefix("\\d+") shouldBe ""
+    RuleMatcher.literalPrefix(".*") shouldBe ""
+  }
+
+  @Test
+  def testFirstMatchingRuleWins(): Unit = {
+    val matcher = new RuleMatcher(rules)
+
+    matcher.find("/admin/users") shouldBe Some(admin)
+    matcher.find("/login.html") shouldBe Some(login)
+    matcher.find("/callback?client_name=FormClient") shouldBe Some(callback)
+    matcher.find("/api") shouldBe Some(optionalSlash)
+    matcher.find("/api/") shouldBe Some(optionalSlash)
+    matcher.find("/css/main.css") shouldBe Some(alternation)
+    matcher.find("/favicon.ico") shouldBe Some(alternation)
+    matcher.find("/admin") shouldBe Some(catchAll)
+    matcher.find("/any/other/path") shouldBe Some(catchAll)
+  }
+
+  @Test
+  def testSameResultsAsLinearScan(): Unit = {
+    val paths = Seq("/admin/", "/admin/x?y=z", "/login.htm", "/login.html", "/callbackXYZ", "/api", "/api//", "/js/app.js",
+      "/favicon.ico", "", "/")
+    val withoutCatchAll = rules.filterNot(_ == catchAll)
+    Seq(new RuleMatcher(withoutCatchAll), new RuleMatcher(withoutCatchAll, DecisionCacheSettings(maxSize = 0))).foreach { matcher =>
+      paths.foreach { path =>
+        matcher.find(path) shouldBe withoutCatchAll.find(rule => path.matches(rule.pathRegex))
+        // cached decision
+        matcher.find(path) shouldBe withoutCatchAll.find(rule => path.matches(rule.pathRegex))
+      }
+    }
+  }
+
+  @Test
+  def testDecisionCacheIsBounded(): Unit = {
+    val matcher = new RuleMatcher(rules, DecisionCacheSettings(maxSize = 2, maxKeyLength = 20))
+
+    matcher.find("/admin/users") shouldBe Some(admin)
+    matcher.find("/admin/users") shouldBe Some(admin)
+    matcher.decisionCache.getHits shouldBe 1
+    matcher.decisionCache.getMisses shouldBe 1
+
+    (1 to 10).foreach(i => matcher.find(s"/login.html?cb=$i") shouldBe Some(catchAll))
+    matcher.decisionCache.size shouldBe 2
+
+    // too long to be cached
+    matcher.find("/admin/users?cache_buster=123456789") shouldBe Some(admin)
+    matcher.decisionCache.getMisses shouldBe 11
+  }
+}
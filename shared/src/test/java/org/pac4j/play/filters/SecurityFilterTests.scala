@@ -1,8 +1,12 @@
 package org.pac4j.play.filters
 
 import akka.actor.ActorSystem
-import akka.stream.{ActorMaterializer, Materializer}
-import com.typesafe.config.ConfigFactory
+import akka.stream.Materializer
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+import com.typesafe.config.{ConfigException, ConfigFactory}
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.junit.runners.BlockJUnit4ClassRunner
@@ -12,7 +16,7 @@ import org.pac4j.core.config.Config
 import org.pac4j.core.engine.DefaultSecurityLogic
 import org.pac4j.play.filters.SecurityFilter.{Rule, RuleData}
 import org.pac4j.play.http.PlayHttpActionAdapter
-import org.pac4j.play.store.PlayCacheSessionStore
+import org.pac4j.play.store.{PlayAsyncCacheSessionStore, PlayCacheSessionStore, PlaySessionStore}
 import org.scalatest.matchers.should.Matchers._
 import org.scalatest.concurrent.ScalaFutures
 import play.api.Configuration
@@ -28,6 +32,8 @@ import scala.language.postfixOps
 @RunWith(classOf[BlockJUnit4ClassRunner])
 class SecurityFilterTests extends ScalaFutures with Results {
 
+  import SecurityFilterTests._
+
   @Test
   def testConvertConfigToRules(): Unit = {
     val config: Configuration = new Configuration(ConfigFactory.load("config/security_filter.conf"))
@@ -42,10 +48,6 @@ class SecurityFilterTests extends ScalaFutures with Results {
 
   @Test
   def testThatSecurityFilterBlocksUnauthorizedRequests(): Unit = {
-    implicit val ec = scala.concurrent.ExecutionContext.global
-    implicit val as = ActorSystem("text-actor-system")
-    implicit val mat = ActorMaterializer()
-
     val securityFilter = prepareSecurityFilter(
       """
         |pac4j.security.rules = [
@@ -80,16 +82,139 @@ class SecurityFilterTests extends ScalaFutures with Results {
     status(tryFilterApply("any/other/path")) shouldBe 200
   }
 
-  private def prepareSecurityFilter(configString: String)
+  @Test
+  def testThatSecurityFilterReloadsRules(): Unit = {
+    var rules =
+      """
+        |pac4j.security.rules = [
+        |  {
+        |    "/path_secure" = {
+        |      clients = "client1"
+        |    }
+        |  }
+        |]
+      """.stripMargin
+    val ruleSource = RuleSource.fromSupplier(() => new Configuration(ConfigFactory.parseString(rules)))
+    val securityFilter = prepareSecurityFilter("", Some(ruleSource))
+
+    def tryFilterApply(path: String): Future[Result] = {
+      val nextFilter = (_: RequestHeader) => Future.successful(Ok("ok"))
+      securityFilter.apply(nextFilter)(FakeRequest(POST, path))
+    }
+
+    status(tryFilterApply("/path_secure")) shouldBe 401
+    status(tryFilterApply("/path_public")) shouldBe 200
+
+    rules = rules.replace("/path_secure", "/path_.*")
+    // the current rules stay in use until the reload
+    status(tryFilterApply("/path_public")) shouldBe 200
+    securityFilter.reloadRules()
+
+    status(tryFilterApply("/path_secure")) shouldBe 401
+    status(tryFilterApply("/path_public")) shouldBe 401
+  }
+
+  @Test
+  def testThatSecurityFilterKeepsUnchangedRules(): Unit = {
+    val rules = """pac4j.security.rules = [ { "/path_secure" = { clients = "client1" } } ]"""
+    val ruleSource = RuleSource.fromSupplier(() => new Configuration(ConfigFactory.parseString(rules)))
+    val securityFilter = prepareSecurityFilter("", Some(ruleSource))
+
+    val nextFilter = (_: RequestHeader) => Future.successful(Ok("ok"))
+    status(securityFilter.apply(nextFilter)(FakeRequest(POST, "/path_public"))) shouldBe 200
+    status(securityFilter.apply(nextFilter)(FakeRequest(POST, "/path_public"))) shouldBe 200
+    securityFilter.reloadRules() shouldBe false
+    securityFilter.decisionCacheHits shouldBe 1
+  }
+
+  @Test
+  def testThatSecurityFilterReloadsRulesFromAFile(): Unit = {
+    val file = File.createTempFile("rules", ".conf")
+    def writeRules(rules: String, lastModified: Long): Unit = {
+      Files.write(file.toPath, rules.getBytes(StandardCharsets.UTF_8))
+      file.setLastModified(lastModified)
+    }
+    writeRules("""pac4j.security.rules = [ { "/path_secure" = { clients = "client1" } } ]""", 1000000000000L)
+    val ruleSource = RuleSource.fromFile(file)
+    val securityFilter = prepareSecurityFilter("", Some(ruleSource))
+
+    def tryFilterApply(path: String): Future[Result] = {
+      val nextFilter = (_: RequestHeader) => Future.successful(Ok("ok"))
+      securityFilter.apply(nextFilter)(FakeRequest(POST, path))
+    }
+
+    status(tryFilterApply("/path_secure")) shouldBe 401
+    status(tryFilterApply("/path_public")) shouldBe 200
+    ruleSource.hasChanged shouldBe false
+
+    // a changed file is swapped in
+    writeRules("""pac4j.security.rules = [ { "/path_.*" = { clients = "client1" } } ]""", 1000000002000L)
+    ruleSource.hasChanged shouldBe true
+    securityFilter.reloadRules() shouldBe true
+    status(tryFilterApply("/path_public")) shouldBe 401
+
+    // a file without rules is ignored
+    writeRules("other = 1", 1000000004000L)
+    securityFilter.reloadRules() shouldBe false
+    status(tryFilterApply("/path_public")) shouldBe 401
+
+    // a missing file is an error and the current rules are kept
+    file.delete() shouldBe true
+    an[ConfigException] should be thrownBy ruleSource.load()
+    securityFilter.reloadRules() shouldBe false
+    status(tryFilterApply("/path_public")) shouldBe 401
+  }
+
+  @Test
+  def testThatSecurityFilterWorksWithAnAsyncSessionStore(): Unit = {
+    val playSessionStore = new PlayAsyncCacheSessionStore(new DefaultAsyncCacheApi(new MockInMemoryAsyncCacheApi()))
+    val securityFilter = prepareSecurityFilter(
+      """
+        |pac4j.security.rules = [
+        |  {
+        |    "/path_anonymous" = {
+        |      "clients" = "AnonymousClient"
+        |      "authorizers" = "none"
+        |    }
+        |  }, {
+        |    "/path_secure" = {
+        |      clients = "client1"
+        |    }
+        |  }
+        |]
+      """.stripMargin, playSessionStore = Some(playSessionStore)
+    )
+
+    def tryFilterApply(path: String): Future[Result] = {
+      val nextFilter = (_: RequestHeader) => Future.successful(Ok("ok"))
+      securityFilter.apply(nextFilter)(FakeRequest(POST, path))
+    }
+
+    status(tryFilterApply("/path_secure")) shouldBe 401
+    status(tryFilterApply("/path_anonymous")) shouldBe 200
+  }
+
+  private def prepareSecurityFilter(configString: String, ruleSource: Option[RuleSource] = None,
+                                    playSessionStore: Option[PlaySessionStore] = None)
                                    (implicit ec: ExecutionContext, mat: Materializer): SecurityFilter = {
     val pac4jConfig = new Config
     pac4jConfig.setSecurityLogic(DefaultSecurityLogic.INSTANCE)
     pac4jConfig.setHttpActionAdapter(PlayHttpActionAdapter.INSTANCE)
     pac4jConfig.setClients(new Clients(new MockDirectClient("client1"), AnonymousClient.INSTANCE))
 
-    val playSessionStore = new PlayCacheSessionStore(new DefaultSyncCacheApi(new DefaultAsyncCacheApi(new MockInMemoryAsyncCacheApi())))
+    val sessionStore = playSessionStore.getOrElse(
+      new PlayCacheSessionStore(new DefaultSyncCacheApi(new DefaultAsyncCacheApi(new MockInMemoryAsyncCacheApi()))))
     val playConfig = new Configuration(ConfigFactory.parseString(configString))
 
-    new SecurityFilter(playConfig, playSessionStore, pac4jConfig)
+    ruleSource
+      .map(new SecurityFilter(playConfig, sessionStore, pac4jConfig, _))
+      .getOrElse(new SecurityFilter(playConfig, sessionStore, pac4jConfig))
   }
 }
+
+object SecurityFilterTests {
+  // a single actor system and materializer shared by the tests
+  implicit val ec: ExecutionContext = scala.concurrent.ExecutionContext.global
+  implicit val as: ActorSystem = ActorSystem("text-actor-system")
+  implicit val mat: Materializer = Materializer.matFromSystem
+}
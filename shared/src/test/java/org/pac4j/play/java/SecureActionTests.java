@@ -0,0 +1,142 @@
+package org.pac4j.play.java;
+
+import org.junit.Test;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.PlayWebContext;
+import org.pac4j.play.store.PlayCookieSessionStore;
+import org.pac4j.play.store.PlaySessionStore;
+import play.libs.concurrent.HttpExecutionContext;
+import play.mvc.Action;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Results;
+import play.mvc.With;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the {@link SecureAction}.
+ *
+ * @since 10.0.1
+ */
+public final class SecureActionTests implements TestsConstants {
+
+    // a custom annotation running the same action
+    @With(SecureAction.class)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public @interface AdminOnly {
+        String clients() default NAME;
+        String authorizers() default KEY;
+        String matchers() default "";
+        boolean multiProfile() default false;
+    }
+
+    @Secure(clients = CLIENT_NAME, authorizers = VALUE, multiProfile = true)
+    public void securedMethod() {}
+
+    @Secure(clients = CLIENT_NAME)
+    @AdminOnly
+    public void doublySecuredMethod() {}
+
+    @Secure(clients = CLIENT_NAME)
+    public static final class SecuredClass {}
+
+    // like Play, the annotation and the annotated method or class
+    private static SecureAction actionWith(final AnnotatedElement element) throws ReflectiveOperationException {
+        return actionWith(element, Secure.class);
+    }
+
+    private static SecureAction actionWith(final AnnotatedElement element, final Class<? extends Annotation> annotationType)
+            throws ReflectiveOperationException {
+        final SecureAction action = new SecureAction(new Config(), new PlayCookieSessionStore());
+        Action.class.getField("configuration").set(action, element.getAnnotation(annotationType));
+        action.annotatedElement = element;
+        return action;
+    }
+
+    private static Method annotatedMethod() throws ReflectiveOperationException {
+        return SecureActionTests.class.getMethod("securedMethod");
+    }
+
+    @Test
+    public void testParameters() throws Throwable {
+        final SecureParameters parameters = actionWith(annotatedMethod()).getParameters();
+        assertEquals(CLIENT_NAME, parameters.getClients());
+        assertEquals(VALUE, parameters.getAuthorizers());
+        assertEquals("", parameters.getMatchers());
+        assertTrue(parameters.isMultiProfile());
+    }
+
+    @Test
+    public void testParametersAreReadOncePerAnnotation() throws Throwable {
+        final SecureParameters parameters = actionWith(annotatedMethod()).getParameters();
+        // another instance of the same method, which has the same annotation
+        assertSame(parameters, actionWith(annotatedMethod()).getParameters());
+        final SecureParameters classParameters = actionWith(SecuredClass.class).getParameters();
+        assertNotSame(parameters, classParameters);
+        assertSame(classParameters, actionWith(SecuredClass.class).getParameters());
+        assertEquals(CLIENT_NAME, classParameters.getClients());
+        assertFalse(classParameters.isMultiProfile());
+    }
+
+    @Test
+    public void testParametersArePerAnnotationType() throws Throwable {
+        final Method method = SecureActionTests.class.getMethod("doublySecuredMethod");
+        final SecureParameters parameters = actionWith(method).getParameters();
+        final SecureParameters adminParameters = actionWith(method, AdminOnly.class).getParameters();
+        assertEquals(CLIENT_NAME, parameters.getClients());
+        assertEquals("", parameters.getAuthorizers());
+        assertEquals(NAME, adminParameters.getClients());
+        assertEquals(KEY, adminParameters.getAuthorizers());
+        assertSame(parameters, actionWith(method).getParameters());
+        assertSame(adminParameters, actionWith(method, AdminOnly.class).getParameters());
+    }
+
+    @Test
+    public void testParametersWithoutAnnotatedElement() throws Throwable {
+        final SecureAction action = new SecureAction(new Config(), new PlayCookieSessionStore());
+        Action.class.getField("configuration").set(action, annotatedMethod().getAnnotation(Secure.class));
+        assertEquals(CLIENT_NAME, action.getParameters().getClients());
+        assertSame(action.getParameters(), actionWith(annotatedMethod()).getParameters());
+    }
+
+    @Test
+    public void testSecurityLogicRunsInTheHttpExecutionContext() throws Throwable {
+        final PlaySessionStore sessionStore = mock(PlaySessionStore.class);
+        final CompletableFuture<String> cacheRead = new CompletableFuture<>();
+        final CompletableFuture<Void> prefetch = cacheRead.thenAccept(v -> {});
+        when(sessionStore.prefetch(any())).thenReturn(prefetch);
+        when(sessionStore.flushAsync(any())).thenReturn(prefetch);
+        final List<Runnable> tasks = new ArrayList<>();
+        final SecureAction action = new SecureAction(new Config(), sessionStore, new HttpExecutionContext(tasks::add)) {
+            @Override
+            protected CompletionStage<Result> performSecurityLogic(final Http.Request req, final PlayWebContext webContext,
+                                                                   final String clients, final String authorizers,
+                                                                   final String matchers, final boolean multiProfile) {
+                return CompletableFuture.completedFuture(Results.ok());
+            }
+        };
+        final CompletableFuture<Result> result = action.call(mock(PlayWebContext.class), CLIENT_NAME, null, null, false)
+                .toCompletableFuture();
+        cacheRead.complete(VALUE);
+        assertFalse(result.isDone());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertTrue(result.isDone());
+    }
+}
@@ -0,0 +1,101 @@
+package org.pac4j.play.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link AesGcmDataEncrypter}.
+ *
+ * @since 10.0.1
+ */
+public final class AesGcmDataEncrypterTests implements TestsConstants {
+
+    private static byte[] key() {
+        final byte[] key = new byte[16];
+        Arrays.fill(key, (byte) 0xAA);
+        return key;
+    }
+
+    @Test
+    public void testOK() {
+        final AesGcmDataEncrypter encrypter = new AesGcmDataEncrypter();
+        final byte[] encrypted = encrypter.encrypt(VALUE.getBytes(StandardCharsets.UTF_8));
+        assertEquals(VALUE.length() + 28, encrypted.length);
+        assertEquals(VALUE, new String(encrypter.decrypt(encrypted), StandardCharsets.UTF_8));
+        assertFalse(Arrays.equals(encrypted, encrypter.encrypt(VALUE.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testSupportsNull() {
+        final AesGcmDataEncrypter encrypter = new AesGcmDataEncrypter();
+        assertNull(encrypter.encrypt(null));
+        assertNull(encrypter.decrypt(null));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testTamperedData() {
+        final AesGcmDataEncrypter encrypter = new AesGcmDataEncrypter(key());
+        final byte[] encrypted = encrypter.encrypt(VALUE.getBytes(StandardCharsets.UTF_8));
+        encrypted[encrypted.length - 1]++;
+        encrypter.decrypt(encrypted);
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testOtherKey() {
+        final byte[] encrypted = new AesGcmDataEncrypter().encrypt(VALUE.getBytes(StandardCharsets.UTF_8));
+        new AesGcmDataEncrypter(key()).decrypt(encrypted);
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testShiroDataNotDecryptedByDefault() {
+        final byte[] encrypted = new ShiroAesDataEncrypter(key()).encrypt(VALUE.getBytes(StandardCharsets.UTF_8));
+        new AesGcmDataEncrypter(key()).decrypt(encrypted);
+    }
+
+    @Test
+    public void testShiroCbcCompatible() throws Exception {
+        final byte[] iv = new byte[16];
+        final Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key(), "AES"), new IvParameterSpec(iv));
+        final byte[] ciphertext = cipher.doFinal(VALUE.getBytes(StandardCharsets.UTF_8));
+        final byte[] encrypted = new byte[iv.length + ciphertext.length];
+        System.arraycopy(ciphertext, 0, encrypted, iv.length, ciphertext.length);
+        final AesGcmDataEncrypter encrypter = new AesGcmDataEncrypter(key());
+        encrypter.setShiroCompatible(true);
+        assertEquals(VALUE, new String(encrypter.decrypt(encrypted), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testShiroCompatible() {
+        final byte[] encrypted = new ShiroAesDataEncrypter(key()).encrypt(VALUE.getBytes(StandardCharsets.UTF_8));
+        final AesGcmDataEncrypter encrypter = new AesGcmDataEncrypter(key());
+        encrypter.setShiroCompatible(true);
+        assertEquals(VALUE, new String(encrypter.decrypt(encrypted), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testByteBuffers() {
+        final AesGcmDataEncrypter encrypter = new AesGcmDataEncrypter(key());
+        final byte[] bytes = ("xx" + VALUE + "yy").getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer raw = ByteBuffer.wrap(bytes, 2, VALUE.length());
+        final ByteBuffer encrypted = encrypter.encryptBuffer(raw);
+        assertEquals(2, raw.position());
+        final byte[] encryptedBytes = new byte[encrypted.remaining()];
+        encrypted.get(encryptedBytes);
+        assertEquals(VALUE, new String(encrypter.decrypt(encryptedBytes), StandardCharsets.UTF_8));
+        final byte[] shifted = new byte[encryptedBytes.length + 3];
+        System.arraycopy(encryptedBytes, 0, shifted, 3, encryptedBytes.length);
+        final ByteBuffer decrypted = encrypter.decryptBuffer(ByteBuffer.wrap(shifted, 3, encryptedBytes.length));
+        assertEquals(VALUE, StandardCharsets.UTF_8.decode(decrypted).toString());
+    }
+}
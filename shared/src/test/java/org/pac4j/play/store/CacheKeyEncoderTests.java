@@ -0,0 +1,69 @@
+package org.pac4j.play.store;
+
+import org.junit.Test;
+import org.pac4j.core.util.JavaSerializationHelper;
+import org.pac4j.core.util.TestsConstants;
+import play.cache.SyncCacheApi;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link DefaultCacheKeyEncoder} and {@link HashingCacheKeyEncoder}.
+ *
+ * @since 10.0.1
+ */
+public final class CacheKeyEncoderTests implements TestsConstants {
+
+    private final CacheKeyEncoder encoder = new DefaultCacheKeyEncoder();
+
+    @Test
+    public void testStringKeyIsUnchanged() {
+        assertEquals(KEY, encoder.encode(KEY));
+        assertEquals("#" + KEY, encoder.encode("#" + KEY));
+        assertEquals("#I:1", encoder.encode("#I:1"));
+    }
+
+    @Test
+    public void testSimpleKeysAreTypeTagged() {
+        assertEquals("#I:1", encoder.encode(1));
+        assertEquals("#L:1", encoder.encode(1L));
+        assertEquals("#Z:true", encoder.encode(true));
+        assertEquals("#E:" + TimeUnit.class.getName() + ".SECONDS", encoder.encode(TimeUnit.SECONDS));
+        final UUID uuid = UUID.randomUUID();
+        assertEquals("#U:" + uuid, encoder.encode(uuid));
+        assertNotEquals(encoder.encode(1), encoder.encode(1L));
+    }
+
+    @Test
+    public void testOtherKeysAreJavaSerialized() {
+        final StringBuilder builder = new StringBuilder(VALUE);
+        assertEquals(new JavaSerializationHelper().serializeToBase64(builder), encoder.encode(builder));
+    }
+
+    @Test
+    public void testHashingBoundsTheKeySize() {
+        final HashingCacheKeyEncoder hashingEncoder = new HashingCacheKeyEncoder(encoder, 10);
+        assertEquals(KEY, hashingEncoder.encode(KEY));
+        final String longKey = new String(new char[200]).replace('\0', 'x');
+        final String hashedKey = hashingEncoder.encode(longKey);
+        assertTrue(hashedKey.startsWith("#H:"));
+        assertEquals(46, hashedKey.length());
+        assertEquals(hashedKey, hashingEncoder.encode(longKey));
+        assertNotEquals(hashedKey, hashingEncoder.encode(longKey + "y"));
+    }
+
+    @Test
+    public void testStoreUsesTheKeyEncoder() {
+        final SyncCacheApi cacheApiMock = mock(SyncCacheApi.class);
+        final PlayCacheStore<Object, String> store = new PlayCacheStore<>(cacheApiMock);
+        store.set(1, VALUE);
+        verify(cacheApiMock).set("#I:1", VALUE, 0);
+        store.setKeyEncoder(key -> "custom");
+        store.remove(1);
+        verify(cacheApiMock).remove("custom");
+    }
+}
@@ -0,0 +1,139 @@
+package org.pac4j.play.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.JavaSerializationHelper;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.PlayWebContext;
+import play.mvc.Http;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link CompactSessionValueSerializer}.
+ *
+ * @since 10.0.1
+ */
+public final class CompactSessionValueSerializerTests implements TestsConstants {
+
+    private final CompactSessionValueSerializer serializer = new CompactSessionValueSerializer();
+
+    private static CommonProfile profile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(CLIENT_NAME);
+        profile.setRemembered(true);
+        profile.addRole(VALUE);
+        profile.addPermission(KEY);
+        profile.addAttribute(NAME, VALUE);
+        profile.addAttribute("groups", Arrays.asList("a", "b"));
+        profile.addAttribute("exp", new Date(1000L));
+        profile.addAttribute("website", java.net.URI.create(PAC4J_URL));
+        profile.addAuthenticationAttribute("amr", 2L);
+        return profile;
+    }
+
+    private static void assertSameProfile(final CommonProfile expected, final CommonProfile actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getClientName(), actual.getClientName());
+        assertEquals(expected.isRemembered(), actual.isRemembered());
+        assertEquals(expected.getRoles(), actual.getRoles());
+        assertEquals(expected.getPermissions(), actual.getPermissions());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+        assertEquals(expected.getAuthenticationAttributes(), actual.getAuthenticationAttributes());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProfilesRoundTrip() {
+        final LinkedHashMap<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(CLIENT_NAME, profile());
+        final byte[] bytes = serializer.serialize(profiles);
+        assertEquals(1, bytes[0]);
+        final LinkedHashMap<String, CommonProfile> result = (LinkedHashMap<String, CommonProfile>) serializer.deserialize(bytes);
+        assertSameProfile(profiles.get(CLIENT_NAME), result.get(CLIENT_NAME));
+    }
+
+    @Test
+    public void testDeserializeByteBuffer() {
+        final CommonProfile profile = profile();
+        final byte[] bytes = serializer.serialize(profile);
+        final byte[] shifted = new byte[bytes.length + 2];
+        System.arraycopy(bytes, 0, shifted, 1, bytes.length);
+        assertSameProfile(profile, (CommonProfile) serializer.deserializeBuffer(ByteBuffer.wrap(shifted, 1, bytes.length)));
+        final byte[] javaBytes = new JavaSerializationHelper().serializeToBytes(profile);
+        assertSameProfile(profile, (CommonProfile) serializer.deserializeBuffer(ByteBuffer.wrap(javaBytes)));
+    }
+
+    @Test
+    public void testCompactIsSmallerThanJava() {
+        final CommonProfile profile = profile();
+        assertTrue(serializer.serialize(profile).length < new JavaSerializationHelper().serializeToBytes(profile).length);
+    }
+
+    @Test
+    public void testReadsJavaSerializedValues() {
+        final CommonProfile profile = profile();
+        final byte[] bytes = new JavaSerializationHelper().serializeToBytes(profile);
+        assertSameProfile(profile, (CommonProfile) serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testOtherValuesAreJavaSerialized() {
+        final java.net.URI uri = java.net.URI.create(PAC4J_URL);
+        final byte[] bytes = serializer.serialize(uri);
+        assertEquals((byte) 0xAC, bytes[0]);
+        assertEquals(uri, serializer.deserialize(bytes));
+        final Map<String, Object> values = new HashMap<>();
+        values.put(KEY, uri);
+        values.put(NAME, null);
+        assertEquals(values, serializer.deserialize(serializer.serialize(values)));
+    }
+
+    @Test
+    public void testNonSerializableValue() {
+        assertNull(serializer.serialize(new Object()));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testNestedNonSerializableValue() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put(KEY, new Object());
+        serializer.serialize(values);
+    }
+
+    @Test
+    public void testProfileWithFieldsIsJavaSerialized() {
+        final FieldProfile profile = new FieldProfile();
+        profile.setId(ID);
+        profile.field = VALUE;
+        assertFalse(serializer.isCompactProfile(FieldProfile.class));
+        assertTrue(serializer.isCompactProfile(CommonProfile.class));
+        assertEquals((byte) 0xAC, serializer.serialize(profile)[0]);
+    }
+
+    @Test
+    public void testCookieSessionStoreReadsJavaSerializedCookie() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        store.setSerializer(new JavaSessionValueSerializer());
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        store.set(context, KEY, profile());
+        store.setSerializer(serializer);
+        assertSameProfile(profile(), (CommonProfile) store.get(context, KEY).get());
+    }
+
+    public static class FieldProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 1L;
+
+        private String field;
+    }
+}
@@ -0,0 +1,73 @@
+package org.pac4j.play.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link HmacDataEncrypter}.
+ *
+ * @since 10.0.1
+ */
+public final class HmacDataEncrypterTests implements TestsConstants {
+
+    private static final byte[] DATA = VALUE.getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] key() {
+        final byte[] key = new byte[32];
+        Arrays.fill(key, (byte) 0xAA);
+        return key;
+    }
+
+    @Test
+    public void testOK() {
+        final HmacDataEncrypter encrypter = new HmacDataEncrypter(key());
+        final byte[] signed = encrypter.encrypt(DATA);
+        assertEquals(DATA.length + 32, signed.length);
+        assertArrayEquals(DATA, Arrays.copyOf(signed, DATA.length));
+        assertArrayEquals(signed, encrypter.encrypt(DATA));
+        assertArrayEquals(DATA, encrypter.decrypt(signed));
+        assertNull(encrypter.encrypt(null));
+        assertNull(encrypter.decrypt(null));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testTamperedData() {
+        final HmacDataEncrypter encrypter = new HmacDataEncrypter(key());
+        final byte[] signed = encrypter.encrypt(DATA);
+        signed[0]++;
+        encrypter.decrypt(signed);
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testOtherKey() {
+        HmacDataEncrypter.fromSecret(NAME).decrypt(new HmacDataEncrypter(key()).encrypt(DATA));
+    }
+
+    @Test
+    public void testFromSecret() {
+        assertArrayEquals(DATA, HmacDataEncrypter.fromSecret(NAME).decrypt(HmacDataEncrypter.fromSecret(NAME).encrypt(DATA)));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testTooShortData() {
+        new HmacDataEncrypter(key()).decrypt(DATA);
+    }
+
+    @Test
+    public void testByteBuffersDoNotCopy() {
+        final HmacDataEncrypter encrypter = new HmacDataEncrypter(key());
+        final ByteBuffer signed = encrypter.encryptBuffer(ByteBuffer.wrap(DATA));
+        final byte[] shifted = new byte[signed.remaining() + 2];
+        signed.get(shifted, 1, shifted.length - 2);
+        final ByteBuffer data = encrypter.decryptBuffer(ByteBuffer.wrap(shifted, 1, shifted.length - 2));
+        assertSame(shifted, data.array());
+        assertEquals(ByteBuffer.wrap(DATA), data);
+    }
+}
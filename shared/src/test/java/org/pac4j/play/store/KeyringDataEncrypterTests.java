@@ -0,0 +1,95 @@
+package org.pac4j.play.store;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link KeyringDataEncrypter}.
+ *
+ * @since 10.0.1
+ */
+public final class KeyringDataEncrypterTests implements TestsConstants {
+
+    private static final byte[] DATA = VALUE.getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] key(final int b) {
+        final byte[] key = new byte[16];
+        Arrays.fill(key, (byte) b);
+        return key;
+    }
+
+    private static Map<Integer, byte[]> keys(final int... keyIds) {
+        final Map<Integer, byte[]> keys = new HashMap<>();
+        for (final int keyId : keyIds) {
+            keys.put(keyId, key(keyId));
+        }
+        return keys;
+    }
+
+    @Test
+    public void testOK() {
+        final KeyringDataEncrypter encrypter = KeyringDataEncrypter.ofKeys(keys(1, 2), 2);
+        final byte[] encrypted = encrypter.encrypt(DATA);
+        assertEquals(2, encrypted[0]);
+        assertArrayEquals(DATA, encrypter.decrypt(encrypted));
+        assertNull(encrypter.encrypt(null));
+        assertNull(encrypter.decrypt(null));
+    }
+
+    @Test
+    public void testKeyRotation() {
+        final byte[] encrypted = KeyringDataEncrypter.ofKeys(keys(1), 1).encrypt(DATA);
+        final KeyringDataEncrypter rotated = KeyringDataEncrypter.ofKeys(keys(1, 2), 2);
+        assertArrayEquals(DATA, rotated.decrypt(encrypted));
+        assertEquals(2, rotated.encrypt(DATA)[0]);
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testRetiredKey() {
+        final byte[] encrypted = KeyringDataEncrypter.ofKeys(keys(1), 1).encrypt(DATA);
+        KeyringDataEncrypter.ofKeys(keys(2), 2).decrypt(encrypted);
+    }
+
+    @Test
+    public void testLegacyEncrypter() {
+        final AesGcmDataEncrypter legacyEncrypter = new AesGcmDataEncrypter(key(9));
+        final byte[] encrypted = legacyEncrypter.encrypt(DATA);
+        final KeyringDataEncrypter encrypter = KeyringDataEncrypter.ofKeys(keys(encrypted[0] & 0xFF), encrypted[0] & 0xFF);
+        encrypter.setLegacyEncrypter(legacyEncrypter);
+        assertArrayEquals(DATA, encrypter.decrypt(encrypted));
+    }
+
+    @Test
+    public void testFromConfig() {
+        final String config = "pac4j.cookie.keyring { active = 2, keys { 1 = \"" + Base64.getEncoder().encodeToString(key(1))
+                + "\", 2 = \"" + Base64.getEncoder().encodeToString(key(2)) + "\" } }";
+        final KeyringDataEncrypter encrypter = KeyringDataEncrypter.fromConfig(ConfigFactory.parseString(config));
+        assertEquals(2, encrypter.getActiveKeyId());
+        assertArrayEquals(DATA, KeyringDataEncrypter.ofKeys(keys(2), 2).decrypt(encrypter.encrypt(DATA)));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testActiveKeyNotInKeyring() {
+        KeyringDataEncrypter.ofKeys(keys(1), 2);
+    }
+
+    @Test
+    public void testByteBuffers() {
+        final KeyringDataEncrypter encrypter = KeyringDataEncrypter.ofKeys(keys(1, 2), 2);
+        final ByteBuffer encrypted = encrypter.encryptBuffer(ByteBuffer.wrap(DATA));
+        assertEquals(2, encrypted.get(encrypted.position()));
+        assertEquals(ByteBuffer.wrap(DATA), encrypter.decryptBuffer(encrypted));
+        assertArrayEquals(DATA, encrypter.decrypt(encrypted.array()));
+    }
+}
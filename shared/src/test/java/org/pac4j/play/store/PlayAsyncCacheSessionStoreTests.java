@@ -0,0 +1,152 @@
+package org.pac4j.play.store;
+
+import akka.Done;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.PlayWebContext;
+import play.cache.AsyncCacheApi;
+import play.mvc.Http;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link PlayAsyncCacheSessionStore}.
+ *
+ * @since 10.0.1
+ */
+public final class PlayAsyncCacheSessionStoreTests implements TestsConstants {
+
+    private AsyncCacheApi cacheApiMock;
+
+    private PlayAsyncCacheSessionStore store;
+
+    private PlayWebContext context;
+
+    @Before
+    public void setUp() {
+        cacheApiMock = mock(AsyncCacheApi.class);
+        store = new PlayAsyncCacheSessionStore(cacheApiMock);
+        context = new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+    }
+
+    @Test
+    public void testPrefetchDoesNotBlock() {
+        final CompletableFuture<Optional<Object>> cacheRead = new CompletableFuture<>();
+        when(cacheApiMock.get(ID)).thenReturn(cacheRead);
+        final CompletableFuture<Void> prefetch = store.prefetch(context).toCompletableFuture();
+        assertFalse(prefetch.isDone());
+
+        final Map<String, Object> data = new HashMap<>();
+        data.put(KEY, VALUE);
+        cacheRead.complete(Optional.of(data));
+        assertTrue(prefetch.isDone());
+        assertEquals(Optional.of(VALUE), store.get(context, KEY));
+        verify(cacheApiMock, times(1)).get(ID);
+    }
+
+    @Test
+    public void testFlushAsyncCompletesWithTheWrites() {
+        when(cacheApiMock.get(ID)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        final CompletableFuture<Done> cacheWrite = new CompletableFuture<>();
+        when(cacheApiMock.set(eq(ID), any(), anyInt())).thenReturn(cacheWrite);
+        store.prefetch(context);
+
+        store.set(context, KEY, VALUE);
+        final CompletableFuture<Void> flush = store.flushAsync(context).toCompletableFuture();
+        assertFalse(flush.isDone());
+        cacheWrite.complete(Done.getInstance());
+        assertTrue(flush.isDone());
+        verify(cacheApiMock).set(ID, data(), store.getTimeout());
+    }
+
+    @Test
+    public void testBufferedWritesAreWrittenOnFlush() {
+        store.setBufferedWrites(true);
+        when(cacheApiMock.get(ID)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(cacheApiMock.set(eq(ID), any(), anyInt())).thenReturn(CompletableFuture.completedFuture(Done.getInstance()));
+        store.prefetch(context);
+
+        store.set(context, KEY, VALUE);
+        verify(cacheApiMock, never()).set(any(), any(), anyInt());
+        assertTrue(store.flushAsync(context).toCompletableFuture().isDone());
+        verify(cacheApiMock).set(ID, data(), store.getTimeout());
+    }
+
+    @Test
+    public void testNotPrefetchedContextReadsTheCache() {
+        when(cacheApiMock.get(ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(data())));
+        assertEquals(Optional.of(VALUE), store.get(context, KEY));
+    }
+
+    @Test
+    public void testPrefetchWithoutSession() {
+        final PlayWebContext statelessContext = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        assertTrue(store.prefetch(statelessContext).toCompletableFuture().isDone());
+        assertFalse(store.getTrackableSession(statelessContext).isPresent());
+        verify(cacheApiMock, never()).get(any());
+    }
+
+    @Test
+    public void testNewSessionDoesNotReadTheCache() {
+        final PlayWebContext newContext = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        assertTrue(store.prefetch(newContext).toCompletableFuture().isDone());
+        assertFalse(store.get(newContext, KEY).isPresent());
+        assertTrue(store.getTrackableSession(newContext).isPresent());
+        verify(cacheApiMock, never()).get(any());
+    }
+
+    @Test
+    public void testWriteKeepsTheConcurrentChanges() {
+        final Map<String, Object> cache = mockInMemoryCache(CompletableFuture.completedFuture(Done.getInstance()));
+        final Map<String, Object> values = data();
+        values.put(NAME, VALUE);
+        cache.put(ID, values);
+        store.prefetch(context);
+        // another request removes a key
+        cache.put(ID, data());
+
+        store.set(context, CLIENT_NAME, VALUE);
+        final Map<String, Object> expected = data();
+        expected.put(CLIENT_NAME, VALUE);
+        assertEquals(expected, cache.get(ID));
+    }
+
+    @Test
+    public void testScheduledWriteIsNotChangedByTheNextValues() {
+        final CompletableFuture<Done> cacheWrite = new CompletableFuture<>();
+        mockInMemoryCache(cacheWrite);
+        store.prefetch(context);
+
+        store.set(context, KEY, VALUE);
+        store.set(context, NAME, VALUE);
+        verify(cacheApiMock).set(ID, data(), store.getTimeout());
+        cacheWrite.complete(Done.getInstance());
+        final Map<String, Object> expected = data();
+        expected.put(NAME, VALUE);
+        verify(cacheApiMock).set(ID, expected, store.getTimeout());
+    }
+
+    private static Map<String, Object> data() {
+        final Map<String, Object> data = new HashMap<>();
+        data.put(KEY, VALUE);
+        return data;
+    }
+
+    private Map<String, Object> mockInMemoryCache(final CompletableFuture<Done> cacheWrite) {
+        final Map<String, Object> cache = new HashMap<>();
+        when(cacheApiMock.get(ID)).thenAnswer(i -> CompletableFuture.completedFuture(Optional.ofNullable(cache.get(ID))));
+        when(cacheApiMock.set(eq(ID), any(), anyInt())).thenAnswer(i -> {
+            cache.put(ID, i.getArgument(1));
+            return cacheWrite;
+        });
+        return cache;
+    }
+}
@@ -0,0 +1,163 @@
+package org.pac4j.play.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.PlayWebContext;
+import play.cache.SyncCacheApi;
+import play.mvc.Http;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link PlayCachePerKeySessionStore}.
+ *
+ * @since 10.0.1
+ */
+public final class PlayCachePerKeySessionStoreTests implements TestsConstants {
+
+    private final Map<String, Object> cache = new HashMap<>();
+
+    // the expiration time (in seconds) of the entries of the cache
+    private final Map<String, Long> expirations = new HashMap<>();
+
+    private long now;
+
+    private SyncCacheApi cacheApiMock;
+
+    private PlayCachePerKeySessionStore store;
+
+    @Before
+    public void setUp() {
+        cacheApiMock = mock(SyncCacheApi.class);
+        when(cacheApiMock.getOptional(anyString())).thenAnswer(i -> {
+            final String key = i.getArgument(0);
+            final Long expiration = expirations.get(key);
+            if (expiration != null && expiration <= now) {
+                cache.remove(key);
+                expirations.remove(key);
+            }
+            return Optional.ofNullable(cache.get(key));
+        });
+        doAnswer(i -> {
+            expirations.put(i.getArgument(0), now + i.<Integer>getArgument(2));
+            return cache.put(i.getArgument(0), i.getArgument(1));
+        }).when(cacheApiMock).set(anyString(), any(), anyInt());
+        doAnswer(i -> cache.remove(i.<String>getArgument(0))).when(cacheApiMock).remove(anyString());
+        store = new PlayCachePerKeySessionStore(cacheApiMock);
+        store.setPrefix(KEY);
+    }
+
+    private PlayWebContext newContext() {
+        return new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+    }
+
+    @Test
+    public void testOneEntryPerKey() {
+        final PlayWebContext context = newContext();
+        store.set(context, NAME, VALUE);
+        store.set(context, FIRSTNAME_VALUE, VALUE);
+        assertEquals(VALUE, cache.get(KEY + ID + ":" + NAME));
+        assertEquals(VALUE, cache.get(KEY + ID + ":" + FIRSTNAME_VALUE));
+        assertEquals(2, ((Map<?, ?>) cache.get(KEY + ID)).size());
+
+        final PlayWebContext otherContext = newContext();
+        assertEquals(Optional.of(VALUE), store.get(otherContext, NAME));
+        verify(cacheApiMock).getOptional(KEY + ID + ":" + NAME);
+        verify(cacheApiMock, never()).getOptional(KEY + ID + ":" + FIRSTNAME_VALUE);
+    }
+
+    @Test
+    public void testWritesOfDifferentKeysDoNotOverwriteEachOther() {
+        final PlayWebContext context1 = newContext();
+        final PlayWebContext context2 = newContext();
+        store.get(context1, NAME);
+        store.get(context2, FIRSTNAME_VALUE);
+        store.set(context1, NAME, VALUE);
+        store.set(context2, FIRSTNAME_VALUE, VALUE);
+        final PlayWebContext context3 = newContext();
+        assertEquals(Optional.of(VALUE), store.get(context3, NAME));
+        assertEquals(Optional.of(VALUE), store.get(context3, FIRSTNAME_VALUE));
+    }
+
+    @Test
+    public void testRemoveValue() {
+        final PlayWebContext context = newContext();
+        store.set(context, NAME, VALUE);
+        store.set(context, NAME, null);
+        assertFalse(cache.containsKey(KEY + ID + ":" + NAME));
+        assertTrue(((Map<?, ?>) cache.get(KEY + ID)).isEmpty());
+        assertEquals(Optional.empty(), store.get(newContext(), NAME));
+    }
+
+    @Test
+    public void testRenewSession() {
+        store.set(newContext(), NAME, VALUE);
+        final PlayWebContext context = newContext();
+        store.renewSession(context);
+        final String newSessionId = store.getOrCreateSessionId(context);
+        assertNotEquals(ID, newSessionId);
+        assertEquals(VALUE, cache.get(KEY + newSessionId + ":" + NAME));
+        assertEquals(Optional.of(VALUE), store.get(context, NAME));
+    }
+
+    @Test
+    public void testIndexIsSavedWhenTheKeysChange() {
+        final PlayWebContext context = newContext();
+        store.set(context, NAME, VALUE);
+        store.set(context, NAME, FIRSTNAME_VALUE);
+        verify(cacheApiMock).set(KEY + ID, Collections.singletonMap(NAME, Boolean.TRUE), store.getTimeout());
+
+        // another web context updating a known key only writes its entry
+        final PlayWebContext otherContext = newContext();
+        store.set(otherContext, NAME, VALUE);
+        store.set(otherContext, NAME, FIRSTNAME_VALUE);
+        verify(cacheApiMock, times(4)).set(eq(KEY + ID + ":" + NAME), any(), anyInt());
+        verify(cacheApiMock).set(eq(KEY + ID), any(), anyInt());
+        verify(cacheApiMock, times(3)).getOptional(KEY + ID);
+
+        store.set(otherContext, FIRSTNAME, VALUE);
+        assertEquals(new HashSet<>(Arrays.asList(NAME, FIRSTNAME)), ((Map<?, ?>) cache.get(KEY + ID)).keySet());
+    }
+
+    @Test
+    public void testIndexEntryLostByAConcurrentWrite() {
+        final PlayWebContext context1 = newContext();
+        final PlayWebContext context2 = newContext();
+        store.set(context1, NAME, VALUE);
+        // the second context read the index before the first write
+        cache.remove(KEY + ID);
+        store.set(context2, FIRSTNAME_VALUE, VALUE);
+        assertEquals(Collections.singleton(FIRSTNAME_VALUE), ((Map<?, ?>) cache.get(KEY + ID)).keySet());
+        // the renewal keeps the values read by the web context
+        final PlayWebContext context3 = newContext();
+        assertEquals(Optional.of(VALUE), store.get(context3, NAME));
+        store.renewSession(context3);
+        final String newSessionId = store.getOrCreateSessionId(context3);
+        assertEquals(VALUE, cache.get(KEY + newSessionId + ":" + NAME));
+        assertEquals(VALUE, cache.get(KEY + newSessionId + ":" + FIRSTNAME_VALUE));
+        // and the next write of a web context knowing the lost key restores it in the index
+        store.set(context1, FIRSTNAME, VALUE);
+        assertEquals(new HashSet<>(Arrays.asList(NAME, FIRSTNAME_VALUE, FIRSTNAME)), ((Map<?, ?>) cache.get(KEY + ID)).keySet());
+    }
+
+    @Test
+    public void testReadsRenewTheExpirationOfTheEntries() {
+        store.set(newContext(), NAME, VALUE);
+        now = store.getTimeout() - 1;
+        assertEquals(Optional.of(VALUE), store.get(newContext(), NAME));
+        now = 2L * store.getTimeout() - 2;
+        assertEquals(Optional.of(VALUE), store.get(newContext(), NAME));
+        now = 3L * store.getTimeout();
+        assertEquals(Optional.empty(), store.get(newContext(), NAME));
+    }
+}
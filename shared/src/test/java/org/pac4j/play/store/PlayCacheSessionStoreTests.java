@@ -2,12 +2,17 @@ package org.pac4j.play.store;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.play.PlayWebContext;
 import play.cache.SyncCacheApi;
 import play.mvc.Http;
+import play.mvc.Results;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -60,4 +65,132 @@ public final class PlayCacheSessionStoreTests implements TestsConstants {
         Optional<Object> value = store.get(context, KEY);
         assertEquals(Optional.of(VALUE), value);
     }
+
+    @Test
+    public void testSessionValuesAreLoadedOncePerContext() {
+        final Map<String, Object> data = new HashMap<>();
+        data.put(KEY, VALUE);
+        when(cacheApiMock.getOptional(any(String.class))).thenReturn(Optional.of(data));
+        final PlayWebContext webContext = new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+        assertEquals(Optional.of(VALUE), store.get(webContext, KEY));
+        assertEquals(Optional.of(VALUE), store.get(webContext, KEY));
+        verify(cacheApiMock, times(1)).getOptional(ID);
+        store.set(webContext, NAME, VALUE);
+        assertEquals(Optional.of(VALUE), store.get(webContext, NAME));
+        // the write reads the session values again to only apply the dirty keys
+        verify(cacheApiMock, times(2)).getOptional(ID);
+        final Map<String, Object> expected = new HashMap<>(data);
+        expected.put(NAME, VALUE);
+        verify(cacheApiMock).set(ID, expected, store.getTimeout());
+        // a new context reads the cache again
+        store.get(new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store), KEY);
+        verify(cacheApiMock, times(3)).getOptional(ID);
+    }
+
+    @Test
+    public void testRenewSessionKeepsTheValues() {
+        final PlayWebContext webContext = new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+        store.set(webContext, KEY, VALUE);
+        store.renewSession(webContext);
+        final String newSessionId = store.getOrCreateSessionId(webContext);
+        assertNotEquals(ID, newSessionId);
+        assertEquals(Optional.of(VALUE), store.get(webContext, KEY));
+        verify(cacheApiMock).set(eq(newSessionId), any(), eq(store.getTimeout()));
+    }
+
+    @Test
+    public void testWriteKeepsTheConcurrentChanges() {
+        final Map<String, Object> cache = mockInMemoryCache();
+        final Map<String, Object> data = new HashMap<>();
+        data.put(Pac4jConstants.USER_PROFILES, VALUE);
+        data.put(KEY, VALUE);
+        cache.put(ID, data);
+        final PlayWebContext webContext = newContext();
+        assertEquals(Optional.of(VALUE), store.get(webContext, Pac4jConstants.USER_PROFILES));
+        // another request logs out
+        store.set(newContext(), Pac4jConstants.USER_PROFILES, null);
+        store.set(webContext, KEY, NAME);
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put(KEY, NAME);
+        assertEquals(expected, cache.get(ID));
+    }
+
+    @Test
+    public void testUnchangedValueIsNotWritten() {
+        final PlayWebContext webContext = new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+        store.set(webContext, KEY, VALUE);
+        store.set(webContext, KEY, VALUE);
+        verify(cacheApiMock, times(1)).set(eq(ID), any(), anyInt());
+    }
+
+    @Test
+    public void testBufferedWritesAreFlushedOnce() {
+        store.setBufferedWrites(true);
+        final PlayWebContext webContext = new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+        store.set(webContext, KEY, VALUE);
+        store.set(webContext, NAME, VALUE);
+        assertEquals(Optional.of(VALUE), store.get(webContext, KEY));
+        verify(cacheApiMock, never()).set(any(), any(), anyInt());
+        webContext.supplementResponse(Results.ok());
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put(KEY, VALUE);
+        expected.put(NAME, VALUE);
+        verify(cacheApiMock).set(ID, expected, store.getTimeout());
+        // nothing changed since the last write
+        webContext.supplementResponse(Results.ok());
+        verify(cacheApiMock, times(1)).set(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testBufferedWritesOfDifferentKeysAreMerged() {
+        store.setBufferedWrites(true);
+        final Map<String, Object> cache = mockInMemoryCache();
+        final Map<String, Object> data = new HashMap<>();
+        data.put(KEY, VALUE);
+        cache.put(ID, data);
+        final PlayWebContext context1 = newContext();
+        final PlayWebContext context2 = newContext();
+        assertEquals(Optional.of(VALUE), store.get(context1, KEY));
+        assertEquals(Optional.of(VALUE), store.get(context2, KEY));
+        store.set(context1, NAME, VALUE);
+        store.set(context2, KEY, null);
+        store.set(context2, CLIENT_NAME, VALUE);
+        context2.supplementResponse(Results.ok());
+        context1.supplementResponse(Results.ok());
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put(NAME, VALUE);
+        expected.put(CLIENT_NAME, VALUE);
+        assertEquals(expected, cache.get(ID));
+    }
+
+    @Test
+    public void testProfileModifiedInPlaceIsWritten() {
+        final PlayWebContext webContext = new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        final Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(CLIENT_NAME, profile);
+        store.set(webContext, Pac4jConstants.USER_PROFILES, profiles);
+        profile.addAttribute(KEY, VALUE);
+        store.set(webContext, Pac4jConstants.USER_PROFILES, profiles);
+        verify(cacheApiMock, times(2)).set(eq(ID), any(), anyInt());
+        // an equal profile is a new instance which may differ from the cached one
+        final CommonProfile copy = new CommonProfile();
+        copy.setId(ID);
+        copy.addAttribute(KEY, VALUE);
+        store.set(webContext, Pac4jConstants.USER_PROFILES, Collections.singletonMap(CLIENT_NAME, copy));
+        verify(cacheApiMock, times(3)).set(eq(ID), any(), anyInt());
+    }
+
+    private PlayWebContext newContext() {
+        return new PlayWebContext(new Http.RequestBuilder().session(Pac4jConstants.SESSION_ID, ID).build(), store);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> mockInMemoryCache() {
+        final Map<String, Object> cache = new HashMap<>();
+        when(cacheApiMock.getOptional(any(String.class))).thenAnswer(i -> Optional.ofNullable(cache.get(i.<String>getArgument(0))));
+        doAnswer(i -> cache.put(i.getArgument(0), i.getArgument(1))).when(cacheApiMock).set(any(String.class), any(), anyInt());
+        return cache;
+    }
 }
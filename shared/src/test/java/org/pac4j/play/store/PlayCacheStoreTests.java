@@ -0,0 +1,134 @@
+package org.pac4j.play.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.util.LocalCache;
+import play.cache.SyncCacheApi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link PlayCacheStore}.
+ *
+ * @since 10.0.1
+ */
+public final class PlayCacheStoreTests implements TestsConstants {
+
+    private SyncCacheApi cacheApiMock;
+
+    private PlayCacheStore<String, String> store;
+
+    @Before
+    public void setUp() {
+        cacheApiMock = mock(SyncCacheApi.class);
+        when(cacheApiMock.getOptional(KEY)).thenReturn(Optional.of(VALUE));
+        store = new PlayCacheStore<>(cacheApiMock);
+    }
+
+    @Test
+    public void testWithoutNearCache() {
+        assertEquals(Optional.of(VALUE), store.get(KEY));
+        assertEquals(Optional.of(VALUE), store.get(KEY));
+        verify(cacheApiMock, times(2)).getOptional(KEY);
+        assertEquals(0.0, store.getNearCacheHitRatio(), 0.0);
+    }
+
+    @Test
+    public void testNearCacheServesTheRepeatedReads() {
+        store.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        assertEquals(Optional.of(VALUE), store.get(KEY));
+        assertEquals(Optional.of(VALUE), store.get(KEY));
+        verify(cacheApiMock, times(1)).getOptional(KEY);
+        assertEquals(1, store.getNearCacheHits());
+        assertEquals(1, store.getNearCacheMisses());
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testNullKeyWithNearCache() {
+        store.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        store.get(null);
+    }
+
+    @Test
+    public void testMissingValuesAreNotCached() {
+        store.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        when(cacheApiMock.getOptional(NAME)).thenReturn(Optional.empty());
+        assertFalse(store.get(NAME).isPresent());
+        assertFalse(store.get(NAME).isPresent());
+        verify(cacheApiMock, times(2)).getOptional(NAME);
+    }
+
+    @Test
+    public void testLocalWritesInvalidate() {
+        final List<String> invalidatedKeys = new ArrayList<>();
+        store.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        store.setInvalidationListener(invalidatedKeys::add);
+        store.get(KEY);
+        store.set(KEY, NAME);
+        when(cacheApiMock.getOptional(KEY)).thenReturn(Optional.of(NAME));
+        assertEquals(Optional.of(NAME), store.get(KEY));
+        store.remove(KEY);
+        when(cacheApiMock.getOptional(KEY)).thenReturn(Optional.empty());
+        assertFalse(store.get(KEY).isPresent());
+        assertEquals(2, invalidatedKeys.size());
+        assertEquals(KEY, invalidatedKeys.get(0));
+    }
+
+    @Test
+    public void testRemoteInvalidation() {
+        store.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        store.get(KEY);
+        when(cacheApiMock.getOptional(KEY)).thenReturn(Optional.of(NAME));
+        assertEquals(Optional.of(VALUE), store.get(KEY));
+        store.invalidate(KEY);
+        assertEquals(Optional.of(NAME), store.get(KEY));
+    }
+
+    @Test
+    public void testNearCacheReturnsCopies() {
+        final PlayCacheStore<String, HashMap<String, String>> mapStore = new PlayCacheStore<>(cacheApiMock);
+        mapStore.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        final HashMap<String, String> values = new HashMap<>();
+        values.put(KEY, VALUE);
+        when(cacheApiMock.getOptional(NAME)).thenReturn(Optional.of(values));
+        final HashMap<String, String> read = mapStore.get(NAME).get();
+        read.put(KEY, FIRSTNAME_VALUE);
+        final HashMap<String, String> otherRead = mapStore.get(NAME).get();
+        assertEquals(VALUE, otherRead.get(KEY));
+        assertNotSame(otherRead, mapStore.get(NAME).get());
+        assertEquals(2, mapStore.getNearCacheHits());
+    }
+
+    @Test
+    public void testNonSerializableValuesAreNotCached() {
+        final PlayCacheStore<String, Object> objectStore = new PlayCacheStore<>(cacheApiMock);
+        objectStore.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        final Object value = new Object();
+        when(cacheApiMock.getOptional(NAME)).thenReturn(Optional.of(value));
+        assertEquals(Optional.of(value), objectStore.get(NAME));
+        assertEquals(Optional.of(value), objectStore.get(NAME));
+        verify(cacheApiMock, times(2)).getOptional(NAME);
+        assertEquals(0, objectStore.getNearCache().size());
+    }
+
+    @Test
+    public void testUntrustedValuesAreReadFromTheCache() {
+        final PlayCacheStore<String, Object> objectStore = new PlayCacheStore<>(cacheApiMock);
+        objectStore.setNearCache(new LocalCache<>(10, 1, TimeUnit.MINUTES));
+        // the scala package is not trusted by the Java deserialization
+        final Object value = new scala.Some<>(VALUE);
+        when(cacheApiMock.getOptional(NAME)).thenReturn(Optional.of(value));
+        assertEquals(Optional.of(value), objectStore.get(NAME));
+        assertEquals(Optional.of(value), objectStore.get(NAME));
+        verify(cacheApiMock, times(2)).getOptional(NAME);
+    }
+}
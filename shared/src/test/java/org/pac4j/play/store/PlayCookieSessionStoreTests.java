@@ -0,0 +1,424 @@
+package org.pac4j.play.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.play.PlayWebContext;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import play.Environment;
+import play.api.Configuration;
+import play.api.http.HttpConfiguration;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Results;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the {@link PlayCookieSessionStore}.
+ *
+ * @since 10.0.1
+ */
+public final class PlayCookieSessionStoreTests implements TestsConstants {
+
+    private static final Random RANDOM = new Random(0);
+
+    private static final class CountingDataEncrypter extends NoOpDataEncrypter {
+
+        private int nbDecryptions;
+
+        @Override
+        public ByteBuffer decryptBuffer(final ByteBuffer encrypted) {
+            nbDecryptions++;
+            return super.decryptBuffer(encrypted);
+        }
+    }
+
+    private static PlayWebContext contextWith(final PlayCookieSessionStore store, final String key, final Object value) {
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        store.set(context, key, value);
+        return new PlayWebContext(new Http.RequestBuilder().session(context.getNativeSession().data()).build(), store);
+    }
+
+    @Test
+    public void testDecodedCookiesAreCached() {
+        final CountingDataEncrypter encrypter = new CountingDataEncrypter();
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(encrypter);
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        final PlayWebContext context = contextWith(store, KEY, profile);
+        final CommonProfile first = (CommonProfile) store.get(context, KEY).get();
+        final CommonProfile second = (CommonProfile) store.get(context, KEY).get();
+        assertEquals(1, encrypter.nbDecryptions);
+        assertEquals(ID, second.getId());
+        assertNotSame(first, second);
+        assertEquals(1, store.getDecodedCookies().getHits());
+    }
+
+    @Test
+    public void testDecodedCookiesCacheDisabled() {
+        final CountingDataEncrypter encrypter = new CountingDataEncrypter();
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(encrypter);
+        store.setDecodedCookies(null);
+        final PlayWebContext context = contextWith(store, KEY, VALUE);
+        assertEquals(VALUE, store.get(context, KEY).get());
+        assertEquals(VALUE, store.get(context, KEY).get());
+        assertEquals(2, encrypter.nbDecryptions);
+    }
+
+    @Test
+    public void testUnchangedValueLeavesTheSessionUntouched() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore();
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        final PlayWebContext context = contextWith(store, KEY, profile);
+        final Http.Session session = context.getNativeSession();
+        final CommonProfile sameProfile = new CommonProfile();
+        sameProfile.setId(ID);
+        store.set(context, KEY, sameProfile);
+        assertSame(session, context.getNativeSession());
+        store.setDecodedCookies(null);
+        store.set(context, KEY, sameProfile);
+        assertSame(session, context.getNativeSession());
+        sameProfile.addRole(VALUE);
+        store.set(context, KEY, sameProfile);
+        assertNotSame(session, context.getNativeSession());
+        assertEquals(sameProfile.getRoles(), ((CommonProfile) store.get(context, KEY).get()).getRoles());
+    }
+
+    @Test
+    public void testSignedKeys() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore();
+        store.setSigningEncrypter(HmacDataEncrypter.fromSecret(NAME));
+        store.setSignedKeys(Collections.singleton(Pac4jConstants.REQUESTED_URL));
+        final PlayWebContext context = contextWith(store, Pac4jConstants.REQUESTED_URL, PAC4J_URL);
+        store.set(context, KEY, PAC4J_URL);
+        assertTrue(decodedSessionValue(context, Pac4jConstants.REQUESTED_URL).contains(PAC4J_URL));
+        assertFalse(decodedSessionValue(context, KEY).contains(PAC4J_URL));
+        store.setDecodedCookies(null);
+        assertEquals(PAC4J_URL, store.get(context, Pac4jConstants.REQUESTED_URL).get());
+        assertEquals(PAC4J_URL, store.get(context, KEY).get());
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testTamperedSignedValue() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore();
+        store.setSigningEncrypter(HmacDataEncrypter.fromSecret(NAME));
+        store.setSignedKeys(Collections.singleton(Pac4jConstants.REQUESTED_URL));
+        store.setDecodedCookies(null);
+        final PlayWebContext context = contextWith(store, Pac4jConstants.REQUESTED_URL, PAC4J_URL);
+        final String tampered = Base64.getEncoder().encodeToString(decodedSessionValue(context, Pac4jConstants.REQUESTED_URL)
+                .replace(PAC4J_URL, PAC4J_URL.toUpperCase()).getBytes(StandardCharsets.ISO_8859_1));
+        context.setNativeSession(context.getNativeSession().adding("pac4j_" + Pac4jConstants.REQUESTED_URL, tampered));
+        store.get(context, Pac4jConstants.REQUESTED_URL);
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void testSignedKeysRequireASigningEncrypter() {
+        new PlayCookieSessionStore().setSignedKeys(Collections.singleton(Pac4jConstants.REQUESTED_URL));
+    }
+
+    @Test
+    public void testSigningKeyDerivedFromTheApplicationSecret() {
+        final HttpConfiguration httpConfiguration = HttpConfiguration.fromConfiguration(new Configuration(ConfigFactory
+                .parseString("play.http.secret.key = \"" + PAC4J_URL + "\"").withFallback(ConfigFactory.load())),
+                Environment.simple().asScala());
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(httpConfiguration);
+        store.setSignedKeys(Collections.singleton(Pac4jConstants.REQUESTED_URL));
+        final PlayWebContext context = contextWith(store, Pac4jConstants.REQUESTED_URL, PAC4J_URL);
+        final PlayCookieSessionStore otherNode = new PlayCookieSessionStore(httpConfiguration);
+        otherNode.setSignedKeys(Collections.singleton(Pac4jConstants.REQUESTED_URL));
+        assertEquals(PAC4J_URL, otherNode.get(context, Pac4jConstants.REQUESTED_URL).get());
+    }
+
+    @Test
+    public void testKeyringLoadedFromTheConfiguration() {
+        final byte[] key = new byte[16];
+        RANDOM.nextBytes(key);
+        final Config config = ConfigFactory.parseString("pac4j.cookie.keyring { active = 1, keys { 1 = \""
+                + Base64.getEncoder().encodeToString(key) + "\" } }").withFallback(ConfigFactory.load());
+        final HttpConfiguration httpConfiguration = HttpConfiguration.fromConfiguration(new Configuration(config),
+                Environment.simple().asScala());
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(httpConfiguration, config);
+        final PlayWebContext context = contextWith(store, KEY, VALUE);
+        assertEquals(1, Base64.getDecoder().decode(context.getNativeSession().getOptional("pac4j_" + KEY).get())[0]);
+        // another node, or the same one after a restart
+        final PlayCookieSessionStore otherNode = new PlayCookieSessionStore(httpConfiguration, config);
+        assertEquals(VALUE, otherNode.get(context, KEY).get());
+    }
+
+    private static String decodedSessionValue(final PlayWebContext context, final String key) {
+        final String sessionValue = context.getNativeSession().getOptional("pac4j_" + key).get();
+        return new String(Base64.getDecoder().decode(sessionValue), StandardCharsets.ISO_8859_1);
+    }
+
+    private static CommonProfile largeProfile() {
+        final CommonProfile profile = new CommonProfile();
+        profile.setId(ID);
+        final byte[] bytes = new byte[600];
+        RANDOM.nextBytes(bytes);
+        profile.addAttribute(NAME, Base64.getEncoder().encodeToString(bytes));
+        return profile;
+    }
+
+    private static PlayCookieSessionStore chunkingStore() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        store.setChunkSize(300);
+        store.setMaxChunks(4);
+        return store;
+    }
+
+    // the next request, with the session and the cookies of the response
+    private static PlayWebContext nextContext(final PlayWebContext context, final PlayCookieSessionStore store) {
+        final Result result = context.supplementResponse(Results.ok());
+        final Http.RequestBuilder builder = new Http.RequestBuilder().session(result.session().data());
+        result.cookies().forEach(builder::cookie);
+        return new PlayWebContext(builder.build(), store);
+    }
+
+    @Test
+    public void testChunkedValue() {
+        final PlayCookieSessionStore store = chunkingStore();
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        final CommonProfile profile = largeProfile();
+        store.set(context, KEY, profile);
+        assertTrue(context.getNativeSession().getOptional("pac4j_" + KEY).get().startsWith("#chunks:"));
+        assertEquals(profile.getAttributes(), ((CommonProfile) store.get(context, KEY).get()).getAttributes());
+
+        final PlayWebContext nextContext = nextContext(context, store);
+        assertEquals(profile.getAttributes(), ((CommonProfile) store.get(nextContext, KEY).get()).getAttributes());
+
+        store.set(nextContext, KEY, VALUE);
+        final Result result = nextContext.supplementResponse(Results.ok());
+        assertTrue(result.cookies().get(store.getChunkName(KEY, 0)).get().maxAge() <= 0);
+        final Http.Request request = new Http.RequestBuilder().session(result.session().data()).build();
+        assertEquals(VALUE, store.get(new PlayWebContext(request, store), KEY).get());
+    }
+
+    @Test
+    public void testChunkedValuesOfSimilarKeys() {
+        final PlayCookieSessionStore store = chunkingStore();
+        final String key = "OidcClient$attemptedAuthentication";
+        final String similarKey = "OidcClient_attemptedAuthentication";
+        assertNotEquals(store.getChunkName(key, 0), store.getChunkName(similarKey, 0));
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        final CommonProfile profile = largeProfile();
+        final CommonProfile otherProfile = largeProfile();
+        store.set(context, key, profile);
+        store.set(context, similarKey, otherProfile);
+
+        final PlayWebContext nextContext = nextContext(context, store);
+        assertEquals(profile.getAttributes(), ((CommonProfile) store.get(nextContext, key).get()).getAttributes());
+        assertEquals(otherProfile.getAttributes(), ((CommonProfile) store.get(nextContext, similarKey).get()).getAttributes());
+    }
+
+    @Test
+    public void testSessionCookieSizeIncludesTheOtherValues() {
+        final PlayCookieSessionStore store = chunkingStore();
+        store.setMaxSessionCookieSize(700);
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        final byte[] bytes = new byte[150];
+        RANDOM.nextBytes(bytes);
+        final String value = Base64.getEncoder().encodeToString(bytes);
+        store.set(context, NAME, value);
+        store.set(context, KEY, value);
+        assertFalse(context.getNativeSession().getOptional("pac4j_" + NAME).get().startsWith("#chunks:"));
+        assertTrue(context.getNativeSession().getOptional("pac4j_" + KEY).get().startsWith("#chunks:"));
+        final PlayWebContext nextContext = nextContext(context, store);
+        assertEquals(value, store.get(nextContext, NAME).get());
+        assertEquals(value, store.get(nextContext, KEY).get());
+    }
+
+    @Test
+    public void testChunkCookiesHaveTheSessionCookieAttributes() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(HttpConfiguration.fromConfiguration(
+                new Configuration(ConfigFactory.parseString("play.http.session { path = /app, domain = example.com, "
+                        + "secure = true, sameSite = strict, maxAge = 1 hour }").withFallback(ConfigFactory.load())),
+                Environment.simple().asScala()));
+        store.setChunkSize(300);
+        store.setMaxChunks(4);
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        store.set(context, KEY, largeProfile());
+        final Http.Cookie chunk = context.supplementResponse(Results.ok()).cookies().get(store.getChunkName(KEY, 0)).get();
+        assertEquals("/app", chunk.path());
+        assertEquals("example.com", chunk.domain());
+        assertTrue(chunk.secure());
+        assertTrue(chunk.httpOnly());
+        assertEquals(Optional.of(Http.Cookie.SameSite.STRICT), chunk.sameSite());
+        assertEquals(Integer.valueOf(3600), chunk.maxAge());
+    }
+
+    @Test
+    public void testTamperedChunk() {
+        final PlayCookieSessionStore store = chunkingStore();
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        store.set(context, KEY, largeProfile());
+        final Result result = context.supplementResponse(Results.ok());
+        final Http.RequestBuilder builder = new Http.RequestBuilder().session(result.session().data());
+        result.cookies().forEach(cookie -> builder.cookie(cookie.name().endsWith("_0")
+                ? Http.Cookie.builder(cookie.name(), "A" + cookie.value().substring(1)).build() : cookie));
+        assertFalse(store.get(new PlayWebContext(builder.build(), store), KEY).isPresent());
+    }
+
+    @Test
+    public void testValueIsInlineWithoutChunking() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        assertEquals(1, store.getMaxChunks());
+        store.setChunkSize(300);
+        store.setMaxSessionCookieSize(700);
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        final CommonProfile profile = largeProfile();
+        store.set(context, KEY, profile);
+        final String sessionValue = context.getNativeSession().getOptional("pac4j_" + KEY).get();
+        assertTrue(sessionValue.length() > 300);
+        assertFalse(sessionValue.startsWith("#chunks:"));
+        final PlayWebContext nextContext = nextContext(context, store);
+        assertEquals(profile.getAttributes(), ((CommonProfile) store.get(nextContext, KEY).get()).getAttributes());
+    }
+
+    @Test
+    public void testOversizedValueIsNotSaved() {
+        final PlayCookieSessionStore store = chunkingStore();
+        store.setMaxChunks(1);
+        store.setMaxValueSize(300);
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        store.set(context, KEY, largeProfile());
+        assertFalse(store.get(context, KEY).isPresent());
+    }
+
+    @Test
+    public void testMaxValueSizeSmallerThanTheChunkSize() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore(new NoOpDataEncrypter());
+        store.setMaxChunks(4);
+        store.setMaxValueSize(300);
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        store.set(context, KEY, largeProfile());
+        assertFalse(store.get(context, KEY).isPresent());
+        store.set(context, KEY, VALUE);
+        assertEquals(VALUE, store.get(context, KEY).get());
+    }
+
+    @Test
+    public void testOversizedValueIsStripped() {
+        final PlayCookieSessionStore store = chunkingStore();
+        store.setMaxChunks(1);
+        store.setMaxValueSize(300);
+        store.setOverflowStrippedAttributes(Collections.singletonList(NAME));
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        final CommonProfile profile = largeProfile();
+        store.set(context, KEY, profile);
+        assertTrue(profile.containsAttribute(NAME));
+        final CommonProfile result = (CommonProfile) store.get(context, KEY).get();
+        assertEquals(ID, result.getId());
+        assertFalse(result.containsAttribute(NAME));
+    }
+
+    @Test
+    public void testOversizedValueSpillsToTheOverflowStore() {
+        final PlayCookieSessionStore store = chunkingStore();
+        store.setMaxChunks(1);
+        store.setMaxValueSize(300);
+        final PlaySessionStore overflowStore = mock(PlaySessionStore.class);
+        store.setOverflowStore(overflowStore);
+        final PlayWebContext context = new PlayWebContext(new Http.RequestBuilder().build(), store);
+        final CommonProfile profile = largeProfile();
+        store.set(context, KEY, profile);
+        verify(overflowStore).set(context, KEY, profile);
+        when(overflowStore.get(context, KEY)).thenReturn(Optional.of(profile));
+        assertSame(profile, store.get(context, KEY).get());
+        store.set(context, KEY, VALUE);
+        verify(overflowStore).set(context, KEY, null);
+        assertEquals(VALUE, store.get(context, KEY).get());
+    }
+
+    @Test
+    public void testCompressionRoundTrip() {
+        final byte[] bytes = new String(new char[1000]).replace('\0', 'a').getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = PlayCookieSessionStore.deflateBytes(bytes);
+        assertTrue(compressed.length < 50);
+        assertArrayEquals(bytes, PlayCookieSessionStore.uncompressBytes(compressed));
+    }
+
+    @Test
+    public void testCompressBytesIsGzip() throws IOException {
+        final byte[] bytes = VALUE.getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = PlayCookieSessionStore.compressBytes(bytes);
+        final ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            final byte[] buffer = new byte[256];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                uncompressed.write(buffer, 0, length);
+            }
+        }
+        assertArrayEquals(bytes, uncompressed.toByteArray());
+    }
+
+    @Test
+    public void testIncompressibleBytes() {
+        final byte[] bytes = new byte[100_000];
+        RANDOM.nextBytes(bytes);
+        assertArrayEquals(bytes, PlayCookieSessionStore.uncompressBytes(PlayCookieSessionStore.deflateBytes(bytes)));
+        final byte[] empty = new byte[0];
+        assertArrayEquals(empty, PlayCookieSessionStore.uncompressBytes(PlayCookieSessionStore.deflateBytes(empty)));
+    }
+
+    @Test
+    public void testUncompressGzipBytes() throws IOException {
+        final byte[] bytes = VALUE.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(bytes);
+        }
+        assertArrayEquals(bytes, PlayCookieSessionStore.uncompressBytes(gzipped.toByteArray()));
+    }
+
+    @Test
+    public void testUncompressInvalidBytes() {
+        final byte[] compressed = PlayCookieSessionStore.deflateBytes(VALUE.getBytes(StandardCharsets.UTF_8));
+        assertNull(PlayCookieSessionStore.uncompressBytes(new byte[] { (byte) 0xff, 1, 2 }));
+        final byte[] truncated = new byte[compressed.length - 1];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        assertNull(PlayCookieSessionStore.uncompressBytes(truncated));
+    }
+
+    @Test
+    public void testNoOpDataEncrypterDoesNotCopy() {
+        final byte[] bytes = VALUE.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, 2);
+        final NoOpDataEncrypter encrypter = new NoOpDataEncrypter();
+        assertSame(bytes, encrypter.decryptBuffer(buffer).array());
+        assertEquals(buffer, encrypter.encryptBuffer(buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testLargeValueRoundTrip() {
+        final PlayCookieSessionStore store = new PlayCookieSessionStore();
+        store.setChunkSize(300000);
+        store.setMaxSessionCookieSize(Integer.MAX_VALUE);
+        final byte[] bytes = new byte[3 * ReusableBuffer.MAX_REUSED_SIZE];
+        RANDOM.nextBytes(bytes);
+        final String value = Base64.getEncoder().encodeToString(bytes);
+        final PlayWebContext context = contextWith(store, KEY, value);
+        store.setDecodedCookies(null);
+        assertEquals(value, store.get(context, KEY).get());
+        assertEquals(VALUE, store.get(contextWith(store, NAME, VALUE), NAME).get());
+    }
+}
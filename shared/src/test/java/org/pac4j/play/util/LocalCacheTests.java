@@ -0,0 +1,143 @@
+package org.pac4j.play.util;
+
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link LocalCache}.
+ *
+ * @since 10.0.1
+ */
+public final class LocalCacheTests implements TestsConstants {
+
+    @Test
+    public void testGetPut() {
+        final LocalCache<String, String> cache = new LocalCache<>(10, 0, TimeUnit.SECONDS);
+        assertNull(cache.get(KEY));
+        cache.put(KEY, VALUE);
+        assertEquals(VALUE, cache.get(KEY));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio(), 0.0);
+    }
+
+    @Test
+    public void testNullValue() {
+        final LocalCache<String, String> cache = new LocalCache<>(10, 0, TimeUnit.SECONDS);
+        cache.put(KEY, null);
+        assertNotNull(cache.getEntry(KEY));
+        assertNull(cache.getEntry(KEY).getValue());
+    }
+
+    @Test
+    public void testOldestEntriesAreEvicted() {
+        final LocalCache<Integer, Integer> cache = new LocalCache<>(3, 0, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(3, cache.size());
+        assertNull(cache.get(6));
+        assertEquals(Integer.valueOf(9), cache.get(9));
+    }
+
+    @Test
+    public void testFrequentlyReadKeySurvivesChurn() {
+        final LocalCache<Integer, Integer> cache = new LocalCache<>(3, 0, TimeUnit.SECONDS);
+        cache.put(0, 0);
+        for (int i = 1; i < 100; i++) {
+            assertEquals(Integer.valueOf(0), cache.get(0));
+            cache.put(i, i);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(Integer.valueOf(0), cache.get(0));
+        assertEquals(Integer.valueOf(99), cache.get(99));
+        assertNull(cache.get(97));
+        // without reads, the key is evicted
+        for (int i = 100; i < 110; i++) {
+            cache.put(i, i);
+        }
+        assertNull(cache.get(0));
+    }
+
+    @Test
+    public void testReplacedValueKeepsItsPlace() {
+        final LocalCache<Integer, Integer> cache = new LocalCache<>(2, 0, TimeUnit.SECONDS);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(1, 10);
+        cache.put(3, 3);
+        assertNull(cache.get(1));
+        assertEquals(Integer.valueOf(2), cache.get(2));
+        assertEquals(Integer.valueOf(3), cache.get(3));
+    }
+
+    @Test
+    public void testRemoveThenPut() {
+        final LocalCache<Integer, Integer> cache = new LocalCache<>(2, 0, TimeUnit.SECONDS);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.remove(1);
+        cache.put(1, 10);
+        cache.put(3, 3);
+        assertNull(cache.get(2));
+        assertEquals(Integer.valueOf(10), cache.get(1));
+        assertEquals(Integer.valueOf(3), cache.get(3));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testExpireThenPut() throws InterruptedException {
+        final LocalCache<Integer, Integer> cache = new LocalCache<>(2, 1, TimeUnit.MILLISECONDS);
+        cache.put(1, 1);
+        Thread.sleep(5);
+        assertNull(cache.get(1));
+        cache.put(1, 1);
+        cache.put(2, 2);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testStaleQueuedKeysArePurged() {
+        final LocalCache<Integer, Integer> cache = new LocalCache<>(10, 0, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i % 3, i);
+            cache.remove(i % 3);
+        }
+        assertTrue(cache.getQueueSize() <= 10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        final LocalCache<String, String> cache = new LocalCache<>(10, 0, TimeUnit.SECONDS);
+        cache.put(KEY, VALUE);
+        cache.put(NAME, VALUE);
+        cache.remove(KEY);
+        assertNull(cache.get(KEY));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        final LocalCache<String, String> cache = new LocalCache<>(10, 1, TimeUnit.MILLISECONDS);
+        cache.put(KEY, VALUE);
+        Thread.sleep(5);
+        assertNull(cache.get(KEY));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        final LocalCache<String, String> cache = new LocalCache<>(0, 0, TimeUnit.SECONDS);
+        cache.put(KEY, VALUE);
+        assertNull(cache.get(KEY));
+    }
+}